@@ -0,0 +1,159 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static edu.neu.coe.info6205.util.Utilities.formatWhole;
+
+/**
+ * Benchmark to measure the number of bytes allocated, and the time taken, per operation by BSTSimple.put, before and
+ * after it was made allocation-free.
+ * <p>
+ * The "before" subject is RecursivePutBST, a copy of the original recursive put, which returns a NodeValue tuple from
+ * every level of the recursion; the "after" subject is BSTSimple itself.
+ * The keys (and values) are boxed before measurement begins, so that only the allocations made by the tree itself are
+ * counted. For a put which inserts a new key, the only allocation by BSTSimple should be the new Node;
+ * for a put which replaces the value of an existing key, there should be no allocation at all.
+ * RecursivePutBST, on the other hand, allocates one NodeValue per level.
+ * <p>
+ * This relies on the HotSpot-specific com.sun.management.ThreadMXBean.
+ */
+public class BSTAllocationBenchmark {
+
+    public static void main(String[] args) {
+        for (int n = 1024; n <= 1 << 20; n *= 4) new BSTAllocationBenchmark(n, 0L).runBenchmark();
+    }
+
+    public BSTAllocationBenchmark(int n, long seed) {
+        this.n = n;
+        this.keys = new Integer[n];
+        Random random = new Random(seed);
+        for (int i = 0; i < n; i++) keys[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer x = keys[i];
+            keys[i] = keys[j];
+            keys[j] = x;
+        }
+    }
+
+    public void runBenchmark() {
+        System.out.println("BSTAllocationBenchmark: N=" + formatWhole(n));
+        System.out.println("  before (recursive put): " + measure(() -> new RecursivePutBST<Integer, Integer>()::put));
+        System.out.println("  after (BSTSimple):      " + measure(() -> new BSTSimple<Integer, Integer>()::put));
+    }
+
+    /**
+     * Method to measure the bytes allocated, and the time taken, per insert and per replace.
+     * The bytes are the same in every run; the time is the best of several runs, since a single run is noisy.
+     *
+     * @param factory a supplier of the put method of a new, empty tree.
+     * @return a description of the results.
+     */
+    private String measure(Supplier<Putter> factory) {
+        // Warmup phase
+        for (int i = 0; i < 5; i++) {
+            Putter putter = factory.get();
+            putAll(putter);
+            putAll(putter);
+        }
+        double insert = 0, replace = 0;
+        double insertNanos = Double.MAX_VALUE, replaceNanos = Double.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            Putter putter = factory.get();
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            putAll(putter);
+            insertNanos = Math.min(insertNanos, (double) (System.nanoTime() - start) / n);
+            insert = (double) (allocatedBytes() - bytes) / n;
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            putAll(putter);
+            replaceNanos = Math.min(replaceNanos, (double) (System.nanoTime() - start) / n);
+            replace = (double) (allocatedBytes() - bytes) / n;
+        }
+        return "bytes per insert: " + String.format("%.1f", insert) + ", bytes per replace: " + String.format("%.1f", replace) +
+                ", nanos per insert: " + String.format("%.1f", insertNanos) + ", nanos per replace: " + String.format("%.1f", replaceNanos);
+    }
+
+    private void putAll(Putter putter) {
+        for (Integer key : keys) putter.put(key, key);
+    }
+
+    private static long allocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private interface Putter {
+        Integer put(Integer key, Integer value);
+    }
+
+    /**
+     * Copy of the put method of BSTSimple as it was before it was made allocation-free (nothing else is needed here).
+     */
+    private static class RecursivePutBST<Key extends Comparable<Key>, Value> {
+        public Value put(Key key, Value value) {
+            NodeValue nodeValue = put(root, key, value);
+            if (root == null) root = nodeValue.node;
+            if (nodeValue.value == null) root.count++;
+            return nodeValue.value;
+        }
+
+        private NodeValue put(Node node, Key key, Value value) {
+            if (node == null) return new NodeValue(new Node(key, value), null);
+            int cf = key.compareTo(node.key);
+            if (cf == 0) {
+                NodeValue result = new NodeValue(node, node.value);
+                node.value = value;
+                return result;
+            } else if (cf < 0) {
+                NodeValue result = put(node.smaller, key, value);
+                if (node.smaller == null)
+                    node.smaller = result.node;
+                if (result.value == null)
+                    result.node.count++;
+                return result;
+            } else {
+                NodeValue result = put(node.larger, key, value);
+                if (node.larger == null)
+                    node.larger = result.node;
+                if (result.value == null)
+                    result.node.count++;
+                return result;
+            }
+        }
+
+        private class NodeValue {
+            private final Node node;
+            private final Value value;
+
+            NodeValue(Node node, Value value) {
+                this.node = node;
+                this.value = value;
+            }
+        }
+
+        private class Node {
+            Node(Key key, Value value) {
+                this.key = key;
+                this.value = value;
+            }
+
+            final Key key;
+            Value value;
+            // The original Node also had an (unused) depth field, which is kept so that nodes are of the same size.
+            final int depth = 0;
+            Node smaller = null;
+            Node larger = null;
+            int count = 0;
+        }
+
+        private Node root = null;
+    }
+
+    private static final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int n;
+    private final Integer[] keys;
+}
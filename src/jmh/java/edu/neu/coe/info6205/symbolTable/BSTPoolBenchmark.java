@@ -0,0 +1,95 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static edu.neu.coe.info6205.util.Utilities.formatWhole;
+
+/**
+ * Benchmark to compare the allocation rate and GC activity of BSTSimple, with and without node pooling,
+ * under a sustained cycle of puts and deletes (as in the deletion experiment).
+ * <p>
+ * The tree is first filled with n random keys (from the range 0 thru 2n-1). Each cycle then deletes a random key and
+ * puts another, so that the size of the tree stays at about n. The keys are boxed before measurement begins,
+ * so that only the allocations made by the tree itself are counted.
+ * For each configuration, the benchmark reports the bytes allocated per cycle (using the HotSpot-specific
+ * com.sun.management.ThreadMXBean) and the number of collections, and the time spent in them, according to the
+ * GarbageCollectorMXBeans. For a detailed log of each collection, run with -Xlog:gc (Java 9+) or -verbose:gc.
+ * <p>
+ * Usage: BSTPoolBenchmark [n [cycles]].
+ */
+public class BSTPoolBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 16;
+        int cycles = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 24;
+        BSTPoolBenchmark benchmark = new BSTPoolBenchmark(n, cycles, 0L);
+        // Warmup phase
+        benchmark.run(0);
+        benchmark.run(1024);
+        for (int poolCapacity : new int[]{0, 16, 1024}) benchmark.run(poolCapacity);
+    }
+
+    public BSTPoolBenchmark(int n, int cycles, long seed) {
+        this.n = n;
+        this.cycles = cycles;
+        Random random = new Random(seed);
+        keys = new Integer[2 * n];
+        for (int i = 0; i < keys.length; i++) keys[i] = i;
+        // Each cycle uses two keys, taken in turn from a (cyclic) sequence of random keys.
+        sequence = new Integer[1 << 20];
+        for (int i = 0; i < sequence.length; i++) sequence[i] = keys[random.nextInt(keys.length)];
+    }
+
+    /**
+     * Method to run the benchmark for one configuration.
+     *
+     * @param poolCapacity the pool capacity of the tree (0 for no pooling).
+     */
+    public void run(int poolCapacity) {
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L), 1.0, poolCapacity);
+        for (int i = 0; i < n; i++) bst.put(sequence[i], sequence[i]);
+        int mask = sequence.length - 1;
+        long collections = collections();
+        long gcMillis = collectionMillis();
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < cycles; i++) {
+            bst.delete(sequence[(2 * i) & mask]);
+            Integer key = sequence[(2 * i + 1) & mask];
+            bst.put(key, key);
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.println("BSTPoolBenchmark: N=" + formatWhole(n) + ", pool capacity: " + formatWhole(poolCapacity) +
+                ", bytes per cycle: " + String.format("%.1f", (double) (allocatedBytes() - bytes) / cycles) +
+                ", collections: " + (collections() - collections) + " (" + (collectionMillis() - gcMillis) + " ms)" +
+                ", time per cycle: " + String.format("%.1f", (double) nanos / cycles) + " ns" +
+                ", size: " + formatWhole(bst.size()));
+    }
+
+    private static long collections() {
+        long result = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+            result += Math.max(bean.getCollectionCount(), 0);
+        return result;
+    }
+
+    private static long collectionMillis() {
+        long result = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+            result += Math.max(bean.getCollectionTime(), 0);
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int n;
+    private final int cycles;
+    private final Integer[] keys;
+    private final Integer[] sequence;
+}
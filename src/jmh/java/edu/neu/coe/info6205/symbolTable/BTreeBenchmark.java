@@ -0,0 +1,87 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import edu.neu.coe.info6205.balsearchtree.TwoFourTree;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the B-tree (TwoFourTree) of various orders, compared with BSTSimple, at large N, with random keys.
+ * The implementation is given as BSTSimple or as BTree followed by the order (for example BTree16).
+ * <p>
+ * As in SymbolTableBenchmark, delete puts its key back (so its score includes an insertion) and put replaces a value.
+ * rangeScan iterates over the (up to) 64 keys starting at a random key.
+ * See SymbolTableBenchmark for how to build and run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class BTreeBenchmark {
+
+    @Param({"BSTSimple", "BTree4", "BTree16", "BTree64"})
+    public String implementation;
+
+    @Param({"18", "22"})
+    public int log2Size;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int n = 1 << log2Size;
+        keys = SymbolTableBenchmark.boxedKeys(n);
+        Map<Integer, Integer> contents = new HashMap<>(n * 2);
+        for (Integer key : keys) contents.put(key, key);
+        if (implementation.equals("BSTSimple")) {
+            BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L));
+            range = bst::rangeIterator;
+            table = bst;
+        } else {
+            TwoFourTree<Integer, Integer> tree = new TwoFourTree<>(Integer.parseInt(implementation.substring("BTree".length())));
+            range = tree::rangeIterator;
+            table = tree;
+        }
+        table.putAll(contents);
+        sequence = SymbolTableBenchmark.sequence("random", n, new Random(0L));
+    }
+
+    @Benchmark
+    public Integer get() {
+        return table.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer put() {
+        Integer key = nextKey();
+        return table.put(key, key);
+    }
+
+    @Benchmark
+    public void delete() {
+        Integer key = nextKey();
+        table.delete(key);
+        table.put(key, key);
+    }
+
+    @Benchmark
+    public void rangeScan(Blackhole blackhole) {
+        Integer lo = nextKey();
+        Iterator<Integer> iterator = range.apply(lo, lo + RANGE - 1);
+        while (iterator.hasNext()) blackhole.consume(iterator.next());
+    }
+
+    private Integer nextKey() {
+        return keys[sequence[cursor++ & (sequence.length - 1)]];
+    }
+
+    private static final int RANGE = 64;
+
+    private BstDetail<Integer, Integer> table;
+    private java.util.function.BiFunction<Integer, Integer, Iterator<Integer>> range;
+    private Integer[] keys;
+    private int[] sequence;
+    private int cursor = 0;
+}
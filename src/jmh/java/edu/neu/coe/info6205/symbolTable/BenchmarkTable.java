@@ -0,0 +1,111 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+/**
+ * Adapter which gives BSTSimple, TreeMap and HashMap a common set of operations for the symbol-table benchmarks.
+ * For the maps, deleteRandom is simply remove; HashMap does not support deleteMin.
+ */
+interface BenchmarkTable {
+
+    Integer get(Integer key);
+
+    Integer put(Integer key, Integer value);
+
+    void delete(Integer key);
+
+    void deleteRandom(Integer key);
+
+    void deleteMin();
+
+    /**
+     * Method to visit every entry (in key order, except for HashMap).
+     */
+    void traverse(BiFunction<Integer, Integer, Void> f);
+
+    /**
+     * Method to create a table, initialized with the given contents.
+     *
+     * @param implementation one of BSTSimple, TreeMap or HashMap.
+     * @param contents       the initial contents (which BSTSimple inserts in random order).
+     * @return a new BenchmarkTable.
+     */
+    static BenchmarkTable create(String implementation, Map<Integer, Integer> contents) {
+        switch (implementation) {
+            case "BSTSimple":
+                BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L));
+                bst.putAll(contents);
+                return new BenchmarkTable() {
+                    public Integer get(Integer key) {
+                        return bst.get(key);
+                    }
+
+                    public Integer put(Integer key, Integer value) {
+                        return bst.put(key, value);
+                    }
+
+                    public void delete(Integer key) {
+                        bst.delete(key);
+                    }
+
+                    public void deleteRandom(Integer key) {
+                        bst.deleteRandom(key);
+                    }
+
+                    public void deleteMin() {
+                        bst.deleteMin();
+                    }
+
+                    public void traverse(BiFunction<Integer, Integer, Void> f) {
+                        bst.inOrderTraverse(f);
+                    }
+                };
+            case "TreeMap":
+                return new MapTable(new TreeMap<>(contents)) {
+                    public void deleteMin() {
+                        ((TreeMap<Integer, Integer>) map).pollFirstEntry();
+                    }
+                };
+            case "HashMap":
+                return new MapTable(new HashMap<>(contents)) {
+                    public void deleteMin() {
+                        throw new UnsupportedOperationException("HashMap has no deleteMin");
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("BenchmarkTable: unknown implementation: " + implementation);
+        }
+    }
+
+    abstract class MapTable implements BenchmarkTable {
+        MapTable(Map<Integer, Integer> map) {
+            this.map = map;
+        }
+
+        public Integer get(Integer key) {
+            return map.get(key);
+        }
+
+        public Integer put(Integer key, Integer value) {
+            return map.put(key, value);
+        }
+
+        public void delete(Integer key) {
+            map.remove(key);
+        }
+
+        public void deleteRandom(Integer key) {
+            map.remove(key);
+        }
+
+        public void traverse(BiFunction<Integer, Integer, Void> f) {
+            map.forEach(f::apply);
+        }
+
+        final Map<Integer, Integer> map;
+    }
+}
@@ -0,0 +1,64 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of BSTSimple.contains on a miss-heavy workload, with and without a Bloom filter (see setBloomFilter).
+ * <p>
+ * The tree holds the even keys 0 thru 2N-2 (N = 2^log2Size), inserted in random order; the keys looked up are random,
+ * and 90% of them are absent (odd, so that each miss would otherwise search as deep as a hit). bitsPerKey is 0 for no
+ * filter.
+ * delete deletes a random key and puts it back, to show the cost of maintaining the filter.
+ * See SymbolTableBenchmark for how to build and run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class BloomFilterBenchmark {
+
+    @Param({"0", "10"})
+    public int bitsPerKey;
+
+    @Param({"16", "20"})
+    public int log2Size;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int n = 1 << log2Size;
+        Map<Integer, Integer> contents = new HashMap<>(n * 2);
+        present = new Integer[n];
+        for (int i = 0; i < n; i++) contents.put(present[i] = 2 * i, i);
+        bst = new BSTSimple<>(new Random(0L));
+        bst.putAll(contents);
+        bst.setBloomFilter(bitsPerKey);
+        Random random = new Random(0L);
+        lookups = new Integer[Math.max(n, 1 << 20)];
+        for (int i = 0; i < lookups.length; i++)
+            lookups[i] = 2 * random.nextInt(n) + (random.nextInt(10) == 0 ? 0 : 1);
+        sequence = SymbolTableBenchmark.sequence("random", n, random);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return bst.contains(lookups[cursor++ & (lookups.length - 1)]);
+    }
+
+    @Benchmark
+    public void delete() {
+        Integer key = present[sequence[cursor++ & (sequence.length - 1)]];
+        bst.delete(key);
+        bst.put(key, key);
+    }
+
+    private BSTSimple<Integer, Integer> bst;
+    private Integer[] lookups;
+    private Integer[] present;
+    private int[] sequence;
+    private int cursor = 0;
+}
@@ -0,0 +1,159 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+
+import static edu.neu.coe.info6205.util.Utilities.formatWhole;
+
+/**
+ * Benchmark to measure the throughput of ConcurrentBST, for 1 thru N threads,
+ * against that of a BSTSimple all of whose operations are serialized by a single (global) lock.
+ * <p>
+ * The tree starts with half of the keys 0 thru n-1 (chosen at random). Each thread then performs a fixed number of
+ * operations, on random keys, of which (by default) 90% are gets, 5% are puts and 5% are deletes
+ * (equally divided between delete and deleteRandom), so that the size of the tree remains roughly constant.
+ * <p>
+ * Usage: ConcurrentBSTBenchmark [maxThreads [n [percentWrites]]].
+ */
+public class ConcurrentBSTBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 16;
+        int percentWrites = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        System.out.println("ConcurrentBSTBenchmark: N=" + formatWhole(n) + ", writes: " + percentWrites + "%, processors: " + Runtime.getRuntime().availableProcessors());
+        ConcurrentBSTBenchmark benchmark = new ConcurrentBSTBenchmark(n, percentWrites, 1 << 20, 0L);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            // Warmup phase
+            benchmark.run(threads, () -> new ConcurrentBST<>(new Random(0L)));
+            benchmark.run(threads, () -> new LockedBST<>(new BSTSimple<Integer, Integer>(new Random(0L))));
+            double concurrent = benchmark.run(threads, () -> new ConcurrentBST<>(new Random(0L)));
+            double locked = benchmark.run(threads, () -> new LockedBST<>(new BSTSimple<Integer, Integer>(new Random(0L))));
+            System.out.println("threads: " + threads + ", ConcurrentBST: " + formatWhole((int) concurrent) + " ops/ms, BSTSimple with global lock: " + formatWhole((int) locked) + " ops/ms");
+        }
+    }
+
+    public ConcurrentBSTBenchmark(int n, int percentWrites, int operations, long seed) {
+        this.n = n;
+        this.percentWrites = percentWrites;
+        this.operations = operations;
+        this.seed = seed;
+    }
+
+    /**
+     * Method to run the benchmark with the given number of threads.
+     *
+     * @param threads the number of threads, each of which performs operations/threads operations.
+     * @param factory a supplier of an empty tree.
+     * @return the throughput in operations per millisecond.
+     * @throws Exception if any thread fails.
+     */
+    public double run(int threads, Callable<BstDetail<Integer, Integer>> factory) throws Exception {
+        BstDetail<Integer, Integer> bst = factory.call();
+        SplittableRandom master = new SplittableRandom(seed);
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) keys[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = master.nextInt(i + 1);
+            int x = keys[i];
+            keys[i] = keys[j];
+            keys[j] = x;
+        }
+        for (int i = 0; i < n / 2; i++) bst.put(keys[i], keys[i]);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = master.split();
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    work(bst, random, operations / threads);
+                    return null;
+                }));
+            }
+            barrier.await();
+            long start = System.nanoTime();
+            for (Future<?> future : futures) future.get();
+            return (operations / threads) * threads / ((System.nanoTime() - start) / 1e6);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void work(BstDetail<Integer, Integer> bst, SplittableRandom random, int m) {
+        for (int i = 0; i < m; i++) {
+            int key = random.nextInt(n);
+            int r = random.nextInt(200);
+            if (r >= 2 * percentWrites) bst.get(key);
+            else if (r >= percentWrites) bst.put(key, i);
+            else if ((r & 1) == 0) bst.delete(key);
+            else bst.deleteRandom(key);
+        }
+    }
+
+    /**
+     * The conventional alternative: a BstDetail which serializes every operation on the underlying tree.
+     */
+    static class LockedBST<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
+        LockedBST(BstDetail<Key, Value> bst) {
+            this.bst = bst;
+        }
+
+        public synchronized Boolean contains(Key key) {
+            return bst.contains(key);
+        }
+
+        public synchronized void putAll(Map<Key, Value> map) {
+            bst.putAll(map);
+        }
+
+        public synchronized void delete(Key key) {
+            bst.delete(key);
+        }
+
+        public synchronized void deleteRandom(Key key) {
+            bst.deleteRandom(key);
+        }
+
+        public synchronized int size() {
+            return bst.size();
+        }
+
+        public synchronized void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+            bst.inOrderTraverse(f);
+        }
+
+        public synchronized void deleteMin() {
+            bst.deleteMin();
+        }
+
+        public synchronized void deleteMax() {
+            bst.deleteMax();
+        }
+
+        public synchronized int depth() {
+            return bst.depth();
+        }
+
+        public synchronized Value get(Key key) {
+            return bst.get(key);
+        }
+
+        public synchronized Value put(Key key, Value value) {
+            return bst.put(key, value);
+        }
+
+        public synchronized Set<Key> keySet() {
+            return bst.keySet();
+        }
+
+        private final BstDetail<Key, Value> bst;
+    }
+
+    private final int n;
+    private final int percentWrites;
+    private final int operations;
+    private final long seed;
+}
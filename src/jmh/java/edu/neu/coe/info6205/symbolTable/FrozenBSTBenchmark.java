@@ -0,0 +1,58 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of get for a BSTSimple and for its frozen (Eytzinger) snapshot, with random keys.
+ * At the larger sizes, neither fits in the cache.
+ * <p>
+ * See SymbolTableBenchmark for how to build and run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class FrozenBSTBenchmark {
+
+    @Param({"10", "14", "18", "22"})
+    public int log2Size;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int n = 1 << log2Size;
+        keys = SymbolTableBenchmark.boxedKeys(n);
+        Map<Integer, Integer> contents = new HashMap<>(n * 2);
+        for (Integer key : keys) contents.put(key, key);
+        bst = new BSTSimple<>(new Random(0L));
+        bst.putAll(contents);
+        frozen = bst.freeze();
+        sequence = SymbolTableBenchmark.sequence("random", n, new Random(0L));
+    }
+
+    @Benchmark
+    public Integer get() {
+        return bst.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer getFrozen() {
+        return frozen.get(nextKey());
+    }
+
+    private Integer nextKey() {
+        return keys[sequence[cursor++ & (sequence.length - 1)]];
+    }
+
+    private BSTSimple<Integer, Integer> bst;
+    private FrozenBST<Integer, Integer> frozen;
+    private Integer[] keys;
+    private int[] sequence;
+    private int cursor = 0;
+}
@@ -0,0 +1,49 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of deleteMin for BSTSimple, compared with TreeMap (HashMap has no order, and so is not included).
+ * <p>
+ * Each table is filled with the keys 0 thru N-1, as in SymbolTableBenchmark. So that the table stays the same,
+ * each deleteMin is followed by putting the minimum back: the score therefore includes one insertion.
+ * <p>
+ * See SymbolTableBenchmark for how to build and run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class OrderedSymbolTableBenchmark {
+
+    @Param({"BSTSimple", "TreeMap"})
+    public String implementation;
+
+    @Param({"10", "14", "18", "22"})
+    public int log2Size;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int n = 1 << log2Size;
+        Integer[] keys = SymbolTableBenchmark.boxedKeys(n);
+        Map<Integer, Integer> contents = new HashMap<>(n * 2);
+        for (Integer key : keys) contents.put(key, key);
+        table = BenchmarkTable.create(implementation, contents);
+        min = keys[0];
+    }
+
+    @Benchmark
+    public Integer deleteMin() {
+        table.deleteMin();
+        return table.put(min, min);
+    }
+
+    private BenchmarkTable table;
+    private Integer min;
+}
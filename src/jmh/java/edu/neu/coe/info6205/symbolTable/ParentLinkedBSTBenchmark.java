@@ -0,0 +1,85 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of ParentLinkedBST, compared with BSTSimple (whose iterators use an explicit stack),
+ * for range scans, complete in-order traversals and deletions, with random keys.
+ * <p>
+ * rangeScan iterates over the (up to) 64 keys starting at a random key; traverse visits every key.
+ * Run with -prof gc to see the allocation per operation.
+ * As in SymbolTableBenchmark, delete puts its key back (so its score includes an insertion).
+ * See SymbolTableBenchmark for how to build and run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ParentLinkedBSTBenchmark {
+
+    @Param({"BSTSimple", "ParentLinkedBST"})
+    public String implementation;
+
+    @Param({"14", "20"})
+    public int log2Size;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int n = 1 << log2Size;
+        keys = SymbolTableBenchmark.boxedKeys(n);
+        Map<Integer, Integer> contents = new HashMap<>(n * 2);
+        for (Integer key : keys) contents.put(key, key);
+        if (implementation.equals("BSTSimple")) {
+            BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L));
+            range = bst::rangeIterator;
+            table = bst;
+        } else {
+            ParentLinkedBST<Integer, Integer> bst = new ParentLinkedBST<>(new Random(0L));
+            range = bst::rangeIterator;
+            table = bst;
+        }
+        table.putAll(contents);
+        sequence = SymbolTableBenchmark.sequence("random", n, new Random(0L));
+    }
+
+    @Benchmark
+    public void rangeScan(Blackhole blackhole) {
+        Integer lo = nextKey();
+        Iterator<Integer> iterator = range.apply(lo, lo + RANGE - 1);
+        while (iterator.hasNext()) blackhole.consume(iterator.next());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void traverse(Blackhole blackhole) {
+        table.inOrderTraverse((k, v) -> {
+            blackhole.consume(v);
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void delete() {
+        Integer key = nextKey();
+        table.deleteRandom(key);
+        table.put(key, key);
+    }
+
+    private Integer nextKey() {
+        return keys[sequence[cursor++ & (sequence.length - 1)]];
+    }
+
+    private static final int RANGE = 64;
+
+    private BstDetail<Integer, Integer> table;
+    private java.util.function.BiFunction<Integer, Integer, Iterator<Integer>> range;
+    private Integer[] keys;
+    private int[] sequence;
+    private int cursor = 0;
+}
@@ -0,0 +1,77 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of SplayTree, compared with BSTSimple and with a balanced tree (RedBlackBST),
+ * under uniform (random), Zipfian (skewed) and sequential (sorted) access traces.
+ * <p>
+ * With a Zipfian trace, the splay tree keeps the hot keys near the root; with a sequential trace,
+ * each key is found next to its predecessor, which has just been splayed.
+ * As in SymbolTableBenchmark, delete puts its key back (so its score includes an insertion).
+ * See SymbolTableBenchmark for how to build and run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class SplayTreeBenchmark {
+
+    @Param({"BSTSimple", "SplayTree", "RedBlackBST"})
+    public String implementation;
+
+    @Param({"random", "zipfian", "sorted"})
+    public String distribution;
+
+    @Param({"14", "20"})
+    public int log2Size;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int n = 1 << log2Size;
+        keys = SymbolTableBenchmark.boxedKeys(n);
+        Map<Integer, Integer> contents = new HashMap<>(n * 2);
+        for (Integer key : keys) contents.put(key, key);
+        switch (implementation) {
+            case "BSTSimple":
+                table = new BSTSimple<>(new Random(0L));
+                break;
+            case "SplayTree":
+                table = new SplayTree<>(new Random(0L));
+                break;
+            case "RedBlackBST":
+                table = new RedBlackBST<>();
+                break;
+            default:
+                throw new IllegalArgumentException("SplayTreeBenchmark: unknown implementation: " + implementation);
+        }
+        table.putAll(contents);
+        sequence = SymbolTableBenchmark.sequence(distribution, n, new Random(0L));
+    }
+
+    @Benchmark
+    public Integer get() {
+        return table.get(nextKey());
+    }
+
+    @Benchmark
+    public void delete() {
+        Integer key = nextKey();
+        table.delete(key);
+        table.put(key, key);
+    }
+
+    private Integer nextKey() {
+        return keys[sequence[cursor++ & (sequence.length - 1)]];
+    }
+
+    private BstDetail<Integer, Integer> table;
+    private Integer[] keys;
+    private int[] sequence;
+    private int cursor = 0;
+}
@@ -0,0 +1,164 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the basic operations of BSTSimple, compared with TreeMap and HashMap.
+ * <p>
+ * Each table is filled with the keys 0 thru N-1 (N = 2^log2Size), which BSTSimple inserts in random order.
+ * The keys on which the operations act are then taken, in turn, from a cyclic sequence which is random (uniform),
+ * sorted (i.e. 0, 1, 2, ...) or Zipfian (so that a few keys, scattered through the tree, are used far more than the rest).
+ * <p>
+ * So that the size (and the shape, more or less) of each table stays the same throughout a run, delete and deleteRandom
+ * put the key back afterwards: their scores therefore include one insertion each.
+ * put replaces the value of a key which is present. deleteMin is benchmarked by OrderedSymbolTableBenchmark.
+ * <p>
+ * Build with: mvn -P jmh -DskipTests package. Then run either
+ * java -jar target/benchmarks.jar SymbolTable -prof gc (any JMH options may be given), or
+ * java -cp target/benchmarks.jar edu.neu.coe.info6205.symbolTable.SymbolTableBenchmark (which always adds the GC profiler,
+ * so that gc.alloc.rate is reported along with the throughput).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class SymbolTableBenchmark {
+
+    @Param({"BSTSimple", "TreeMap", "HashMap"})
+    public String implementation;
+
+    @Param({"random", "sorted", "zipfian"})
+    public String distribution;
+
+    @Param({"10", "14", "18", "22"})
+    public int log2Size;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int n = 1 << log2Size;
+        keys = boxedKeys(n);
+        Map<Integer, Integer> contents = new HashMap<>(n * 2);
+        for (Integer key : keys) contents.put(key, key);
+        table = BenchmarkTable.create(implementation, contents);
+        sequence = sequence(distribution, n, new Random(0L));
+    }
+
+    @Benchmark
+    public Integer get() {
+        return table.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer put() {
+        Integer key = nextKey();
+        return table.put(key, key);
+    }
+
+    @Benchmark
+    public void delete() {
+        Integer key = nextKey();
+        table.delete(key);
+        table.put(key, key);
+    }
+
+    @Benchmark
+    public void deleteRandom() {
+        Integer key = nextKey();
+        table.deleteRandom(key);
+        table.put(key, key);
+    }
+
+    @Benchmark
+    public void inOrderTraverse(Blackhole blackhole) {
+        table.traverse((k, v) -> {
+            blackhole.consume(k);
+            return null;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SymbolTableBenchmark.class.getSimpleName())
+                .include(OrderedSymbolTableBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    private Integer nextKey() {
+        return keys[sequence[cursor++ & (sequence.length - 1)]];
+    }
+
+    /**
+     * Method to box the keys 0 thru n-1 in advance, so that the benchmarks themselves allocate only what the tables do.
+     */
+    static Integer[] boxedKeys(int n) {
+        Integer[] result = new Integer[n];
+        for (int i = 0; i < n; i++) result[i] = i;
+        return result;
+    }
+
+    /**
+     * Method to generate a cyclic sequence of key indices (whose length is a power of 2).
+     *
+     * @param distribution random, sorted or zipfian.
+     * @param n            the number of keys.
+     * @param random       the source of randomness.
+     * @return an array of indices in the range 0 thru n-1.
+     */
+    static int[] sequence(String distribution, int n, Random random) {
+        int[] result = new int[Math.max(n, SEQUENCE_LENGTH)];
+        switch (distribution) {
+            case "random":
+                for (int i = 0; i < result.length; i++) result[i] = random.nextInt(n);
+                break;
+            case "sorted":
+                for (int i = 0; i < result.length; i++) result[i] = i % n;
+                break;
+            case "zipfian":
+                // The key of rank r (from 1) is chosen with probability proportional to 1/r^ZIPF_EXPONENT.
+                // The ranks are assigned to the keys at random, so that the popular keys are not all in one place.
+                double[] cdf = new double[n];
+                double total = 0;
+                for (int r = 0; r < n; r++) cdf[r] = total += 1 / Math.pow(r + 1, ZIPF_EXPONENT);
+                int[] keyOfRank = new int[n];
+                for (int i = 0; i < n; i++) keyOfRank[i] = i;
+                for (int i = n - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int t = keyOfRank[i];
+                    keyOfRank[i] = keyOfRank[j];
+                    keyOfRank[j] = t;
+                }
+                for (int i = 0; i < result.length; i++) {
+                    int r = Arrays.binarySearch(cdf, random.nextDouble() * total);
+                    result[i] = keyOfRank[Math.min(r < 0 ? -r - 1 : r, n - 1)];
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("SymbolTableBenchmark: unknown distribution: " + distribution);
+        }
+        return result;
+    }
+
+    // The minimum length of a key sequence (it is at least N, so that a sorted sequence covers all of the keys).
+    private static final int SEQUENCE_LENGTH = 1 << 20;
+
+    // The exponent of the Zipfian distribution (as used by YCSB).
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    private BenchmarkTable table;
+    private Integer[] keys;
+    private int[] sequence;
+    private int cursor = 0;
+}
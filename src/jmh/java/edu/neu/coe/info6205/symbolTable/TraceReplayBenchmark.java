@@ -0,0 +1,72 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import edu.neu.coe.info6205.balsearchtree.FixedWidth;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark which replays one recorded trace into various trees, so that they are compared on an identical workload.
+ * <p>
+ * The trace is recorded (by a TraceRecorder on a BSTSimple) once per trial: N random puts (keys in 0 thru N-1)
+ * interleaved with N/2 random Hibbard deletes and N gets, N = 2^log2Operations.
+ * Each invocation replays the whole trace into a new, empty tree: BSTSimple with Hibbard deletion or with random
+ * deletion (Hibbard and random, by way of TraceReplayer's deleter), or RedBlackBST. The score is the time per replay.
+ * See SymbolTableBenchmark for how to build and run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class TraceReplayBenchmark {
+
+    @Param({"Hibbard", "random", "RedBlackBST"})
+    public String implementation;
+
+    @Param({"16", "20"})
+    public int log2Operations;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        int n = 1 << log2Operations;
+        file = Files.createTempFile("TraceReplayBenchmark", ".trace");
+        Random random = new Random(0L);
+        try (TraceRecorder<Integer, Integer> recorder = new TraceRecorder<>(file, new BSTSimple<>(new Random(1L)), FixedWidth.INTEGER, FixedWidth.INTEGER)) {
+            for (int i = 0; i < n; i++) {
+                recorder.put(random.nextInt(n), i);
+                recorder.get(random.nextInt(n));
+                if ((i & 1) == 1) recorder.delete(random.nextInt(n));
+            }
+        }
+        replayer = new TraceReplayer<>(file, FixedWidth.INTEGER, FixedWidth.INTEGER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        replayer.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long replay() throws IOException {
+        switch (implementation) {
+            case "Hibbard":
+                return replayer.replay(new BSTSimple<>(new Random(1L)), BstDetail::delete);
+            case "random":
+                return replayer.replay(new BSTSimple<>(new Random(1L)), BstDetail::deleteRandom);
+            case "RedBlackBST":
+                return replayer.replay(new RedBlackBST<>());
+            default:
+                throw new IllegalArgumentException("TraceReplayBenchmark: unknown implementation: " + implementation);
+        }
+    }
+
+    private Path file;
+    private TraceReplayer<Integer, Integer> replayer;
+}
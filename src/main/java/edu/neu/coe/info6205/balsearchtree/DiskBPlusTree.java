@@ -0,0 +1,703 @@
+package edu.neu.coe.info6205.balsearchtree;
+
+import edu.neu.coe.info6205.symbolTable.BstDetail;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * B+tree, with keys and values of fixed width, kept in a file of fixed-size pages which is accessed through
+ * memory mapping (FileChannel.map).
+ * <p>
+ * Every entry is held in a leaf, and the leaves are linked (in both directions) in key order, so that range scans and
+ * traversals simply follow the links; the internal nodes hold only keys and the numbers of their children's pages.
+ * Keys are compared where they lie in the page (see FixedWidth.compare), so nothing is deserialized by a search
+ * and opening an existing file costs no more than reading its header page: the operating system pages the rest in as
+ * it is used (and keeps it cached between runs).
+ * <p>
+ * The file is mapped in chunks of chunkPages pages, of which at most cacheChunks are held at a time, in an LRU cache;
+ * the least recently used chunk is evicted when another is needed. So the address space used is bounded, whatever the
+ * size of the file. An evicted chunk is retired, rather than unmapped at once, since the operation in progress may still
+ * be using it; retired chunks are unmapped at the start of the next operation (see release). Nothing needs to be written
+ * back on eviction: the mapping is shared, so every write goes straight to the operating system's cache of the file.
+ * <p>
+ * Page 0 holds the header (see the *_OFFSET constants). Each node page holds its kind, its number of keys and
+ * (for a leaf) the numbers of the previous and next leaves, followed either by key/value pairs (leaf) or by
+ * child/key pairs and then the last child (internal). Each node has room for one more entry than it is allowed to hold,
+ * so that an insertion can overfill a node before it is split (as in TwoFourTree).
+ * <p>
+ * A put which overfills a leaf splits it in two, copying the first key of the new (right) leaf up into the parent,
+ * which may split in turn (moving its median key up). A delete simply removes its entry from the leaf: nodes are not
+ * merged and pages are never freed (as in many production B+trees), so the depth never decreases; an empty leaf is
+ * simply skipped by scans.
+ * <p>
+ * The header is updated in place after each put and delete; call flush (or close) to force the mapped pages to disk.
+ * This class is not thread-safe. A value may not be null.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class DiskBPlusTree<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value>, Closeable {
+
+    /**
+     * Constructor to open (or, if it is empty or does not exist, to create) a DiskBPlusTree in file.
+     *
+     * @param file        the file.
+     * @param keys        the codec for keys.
+     * @param values      the codec for values.
+     * @param pageSize    the page size for a new file (an existing file must have been created with the same size).
+     * @param chunkPages  the number of pages mapped at a time.
+     * @param cacheChunks the maximum number of chunks kept mapped.
+     * @throws IOException if the file cannot be opened, or is not a DiskBPlusTree with the same page size and widths.
+     */
+    public DiskBPlusTree(Path file, FixedWidth<Key> keys, FixedWidth<Value> values, int pageSize, int chunkPages, int cacheChunks) throws IOException {
+        this.keys = keys;
+        this.values = values;
+        this.pageSize = pageSize;
+        this.chunkPages = chunkPages;
+        this.cacheChunks = cacheChunks;
+        keyWidth = keys.width();
+        entryWidth = keyWidth + values.width();
+        leafCapacity = (pageSize - NODE_HEADER) / entryWidth - 1;
+        internalCapacity = (pageSize - NODE_HEADER - CHILD) / (keyWidth + CHILD) - 1;
+        if (leafCapacity < 2 || internalCapacity < 2)
+            throw new IllegalArgumentException("DiskBPlusTree: page size " + pageSize + " is too small for keys and values of width " + keyWidth + " and " + values.width());
+        scratch = new byte[pageSize];
+        separator = new byte[keyWidth];
+        chunks = new LinkedHashMap<Integer, MappedByteBuffer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, MappedByteBuffer> eldest) {
+                if (size() <= DiskBPlusTree.this.cacheChunks) return false;
+                retired.add(eldest.getValue());
+                return true;
+            }
+        };
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) create();
+            else open();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Constructor to open (or create) a DiskBPlusTree with 4 KiB pages, mapped 1 MiB at a time, with up to 64 MiB mapped.
+     */
+    public DiskBPlusTree(Path file, FixedWidth<Key> keys, FixedWidth<Value> values) throws IOException {
+        this(file, keys, values, 4096, 256, 64);
+    }
+
+    @Override
+    public Value get(Key key) {
+        release();
+        int page = path[findLeaf(key, 0)];
+        ByteBuffer b = chunk(page);
+        int base = base(page);
+        int i = searchLeaf(b, base, key);
+        return i >= 0 ? values.read(b, base + NODE_HEADER + i * entryWidth + keyWidth) : null;
+    }
+
+    @Override
+    public Boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Method to put the key/value pair into this tree.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key (not null).
+     * @return the previous value associated with key, or null if the key was not present.
+     */
+    @Override
+    public Value put(Key key, Value value) {
+        if (value == null) throw new IllegalArgumentException("DiskBPlusTree: value may not be null");
+        release();
+        int d = findLeaf(key, 0);
+        int page = path[d];
+        ByteBuffer b = chunk(page);
+        int base = base(page);
+        int i = searchLeaf(b, base, key);
+        int offset = base + NODE_HEADER + (i >= 0 ? i : -i - 1) * entryWidth;
+        if (i >= 0) {
+            Value result = values.read(b, offset + keyWidth);
+            values.write(b, offset + keyWidth, value);
+            return result;
+        }
+        int n = count(b, base);
+        move(b, offset, offset + entryWidth, (n - (-i - 1)) * entryWidth);
+        keys.write(b, offset, key);
+        values.write(b, offset + keyWidth, value);
+        b.putInt(base + COUNT, ++n);
+        size++;
+        if (n > leafCapacity) splitLeaf(d);
+        writeHeader();
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        for (Map.Entry<Key, Value> entry : map.entrySet()) put(entry.getKey(), entry.getValue());
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        Set<Key> result = new LinkedHashSet<>();
+        Iterator<Key> iterator = rangeIterator(null, null);
+        while (iterator.hasNext()) result.add(iterator.next());
+        return result;
+    }
+
+    /**
+     * Method to delete key, by removing its entry from its leaf (no nodes are merged).
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void delete(Key key) {
+        release();
+        int page = path[findLeaf(key, 0)];
+        ByteBuffer b = chunk(page);
+        int base = base(page);
+        int i = searchLeaf(b, base, key);
+        if (i >= 0) removeEntry(b, base, i);
+    }
+
+    /**
+     * A B+tree has no choice of replacement to make, so this is the same as delete.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void deleteRandom(Key key) {
+        delete(key);
+    }
+
+    @Override
+    public void deleteMin() {
+        release();
+        for (int page = edgeLeaf(false); page != NIL; page = chunk(page).getInt(base(page) + NEXT)) {
+            ByteBuffer b = chunk(page);
+            if (count(b, base(page)) > 0) {
+                removeEntry(b, base(page), 0);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void deleteMax() {
+        release();
+        for (int page = edgeLeaf(true); page != NIL; page = chunk(page).getInt(base(page) + PREVIOUS)) {
+            ByteBuffer b = chunk(page);
+            int n = count(b, base(page));
+            if (n > 0) {
+                removeEntry(b, base(page), n - 1);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        rangeTraverse(null, null, f);
+    }
+
+    /**
+     * Method to apply f to each key and value from lo to hi (inclusive), in order, by following the leaf links.
+     *
+     * @param lo the lower bound (inclusive), or null for no lower bound.
+     * @param hi the upper bound (inclusive), or null for no upper bound.
+     * @param f  the function to apply.
+     * @return the number of entries visited.
+     */
+    public int rangeTraverse(Key lo, Key hi, BiFunction<Key, Value, Void> f) {
+        release();
+        LeafCursor cursor = new LeafCursor(lo, hi);
+        int result = 0;
+        for (; cursor.hasNext(); result++) {
+            int offset = cursor.next();
+            f.apply(keys.read(cursor.buffer, offset), values.read(cursor.buffer, offset + keyWidth));
+        }
+        return result;
+    }
+
+    /**
+     * Method to yield a lazy iterator over the keys from lo to hi (inclusive), in order.
+     * The tree must not be modified while the iteration is in progress.
+     *
+     * @param lo the lower bound (inclusive), or null for no lower bound.
+     * @param hi the upper bound (inclusive), or null for no upper bound.
+     * @return an iterator over the keys in range.
+     */
+    public Iterator<Key> rangeIterator(Key lo, Key hi) {
+        release();
+        LeafCursor cursor = new LeafCursor(lo, hi);
+        return new Iterator<Key>() {
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            public Key next() {
+                int offset = cursor.next();
+                return keys.read(cursor.buffer, offset);
+            }
+        };
+    }
+
+    /**
+     * Yield the number of levels of this tree (all of the leaves are at the same depth). If it is empty, then depth will be 0.
+     *
+     * @return the number of levels.
+     */
+    @Override
+    public int depth() {
+        return size > 0 ? height : 0;
+    }
+
+    /**
+     * @return the number of pages in the file (including the header).
+     */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Method to force all of the mapped chunks (and so the header) to the storage device.
+     */
+    public void flush() {
+        release();
+        writeHeader();
+        for (MappedByteBuffer chunk : chunks.values()) chunk.force();
+    }
+
+    /**
+     * Method to flush this tree and unmap all of its chunks. Any iterator over this tree becomes unusable.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        retired.addAll(chunks.values());
+        chunks.clear();
+        release();
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DiskBPlusTree{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    /**
+     * Method to descend from the root to the leaf in which key belongs, recording the pages visited, and the index of the
+     * child taken from each internal page, in path and indices.
+     *
+     * @param key the key.
+     * @param d   the level at which to start recording (always 0).
+     * @return the level of the leaf, whose page number is path[d].
+     */
+    private int findLeaf(Key key, int d) {
+        int page = root;
+        while (true) {
+            ByteBuffer b = chunk(page);
+            int base = base(page);
+            path[d] = page;
+            if (b.get(base + KIND) == LEAF) return d;
+            // Find the number of keys which are less than or equal to key: that is the index of the child to take.
+            int lo = 0, hi = count(b, base) - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys.compare(b, keyOffset(base, mid), key) <= 0) lo = mid + 1;
+                else hi = mid - 1;
+            }
+            indices[d++] = lo;
+            page = b.getInt(childOffset(base, lo));
+        }
+    }
+
+    /**
+     * Binary search for key amongst the entries of a leaf.
+     *
+     * @return the index of key if present; otherwise -(i+1) where i is the index at which it would be inserted.
+     */
+    private int searchLeaf(ByteBuffer b, int base, Key key) {
+        int lo = 0, hi = count(b, base) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cf = keys.compare(b, base + NODE_HEADER + mid * entryWidth, key);
+            if (cf < 0) lo = mid + 1;
+            else if (cf > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Method to split the overfull leaf at level d of path, and to insert the first key of the new leaf into its parent.
+     */
+    private void splitLeaf(int d) {
+        int page = path[d];
+        int sibling = allocate(LEAF);
+        ByteBuffer b = chunk(page);
+        int base = base(page);
+        ByteBuffer s = chunk(sibling);
+        int sBase = base(sibling);
+        int n = count(b, base);
+        int mid = n / 2;
+        copy(b, base + NODE_HEADER + mid * entryWidth, s, sBase + NODE_HEADER, (n - mid) * entryWidth);
+        s.putInt(sBase + COUNT, n - mid);
+        b.putInt(base + COUNT, mid);
+        int next = b.getInt(base + NEXT);
+        s.putInt(sBase + NEXT, next);
+        s.putInt(sBase + PREVIOUS, page);
+        b.putInt(base + NEXT, sibling);
+        if (next != NIL) chunk(next).putInt(base(next) + PREVIOUS, sibling);
+        copy(s, sBase + NODE_HEADER, separator, 0, keyWidth);
+        insertSeparator(d, sibling);
+    }
+
+    /**
+     * Method to insert the key in separator, with the page to its right, into the parent of the node at level d of path,
+     * splitting the parent (and so on upwards) if it is overfull, or growing a new root.
+     */
+    private void insertSeparator(int d, int right) {
+        while (true) {
+            if (d == 0) {
+                int top = allocate(INTERNAL);
+                ByteBuffer b = chunk(top);
+                int base = base(top);
+                b.putInt(childOffset(base, 0), root);
+                copy(separator, 0, b, keyOffset(base, 0), keyWidth);
+                b.putInt(childOffset(base, 1), right);
+                b.putInt(base + COUNT, 1);
+                root = top;
+                height++;
+                return;
+            }
+            d--;
+            int page = path[d];
+            int i = indices[d];
+            ByteBuffer b = chunk(page);
+            int base = base(page);
+            int n = count(b, base);
+            // Make room for key i and child i+1.
+            move(b, keyOffset(base, i), keyOffset(base, i + 1), (n - i) * (keyWidth + CHILD));
+            copy(separator, 0, b, keyOffset(base, i), keyWidth);
+            b.putInt(childOffset(base, i + 1), right);
+            b.putInt(base + COUNT, ++n);
+            if (n <= internalCapacity) return;
+            // Split: keys after mid (with their children) go to a new sibling, and key mid moves up.
+            int sibling = allocate(INTERNAL);
+            ByteBuffer s = chunk(sibling);
+            int sBase = base(sibling);
+            int mid = n / 2;
+            copy(b, childOffset(base, mid + 1), s, childOffset(sBase, 0), (n - mid - 1) * (keyWidth + CHILD) + CHILD);
+            s.putInt(sBase + COUNT, n - mid - 1);
+            b.putInt(base + COUNT, mid);
+            copy(b, keyOffset(base, mid), separator, 0, keyWidth);
+            right = sibling;
+        }
+    }
+
+    private void removeEntry(ByteBuffer b, int base, int i) {
+        int n = count(b, base);
+        int offset = base + NODE_HEADER + i * entryWidth;
+        move(b, offset + entryWidth, offset, (n - i - 1) * entryWidth);
+        b.putInt(base + COUNT, n - 1);
+        size--;
+        writeHeader();
+    }
+
+    /**
+     * @param last if true, the rightmost leaf, otherwise the leftmost.
+     * @return the page number of the leaf.
+     */
+    private int edgeLeaf(boolean last) {
+        int page = root;
+        while (true) {
+            ByteBuffer b = chunk(page);
+            int base = base(page);
+            if (b.get(base + KIND) == LEAF) return page;
+            page = b.getInt(childOffset(base, last ? count(b, base) : 0));
+        }
+    }
+
+    /**
+     * Method to allocate (at the end of the file) and initialize a new node page.
+     *
+     * @return the page number.
+     */
+    private int allocate(byte kind) {
+        int page = pageCount++;
+        ByteBuffer b = chunk(page);
+        int base = base(page);
+        b.put(base + KIND, kind);
+        b.putInt(base + COUNT, 0);
+        b.putInt(base + NEXT, NIL);
+        b.putInt(base + PREVIOUS, NIL);
+        return page;
+    }
+
+    private void create() {
+        pageCount = 1;
+        root = allocate(LEAF);
+        height = 1;
+        size = 0;
+        ByteBuffer b = chunk(0);
+        b.putInt(MAGIC_OFFSET, MAGIC);
+        b.putInt(PAGE_SIZE_OFFSET, pageSize);
+        b.putInt(KEY_WIDTH_OFFSET, keyWidth);
+        b.putInt(VALUE_WIDTH_OFFSET, values.width());
+        writeHeader();
+    }
+
+    private void open() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        while (header.hasRemaining()) if (channel.read(header, header.position()) < 0) break;
+        if (header.hasRemaining() || header.getInt(MAGIC_OFFSET) != MAGIC)
+            throw new IOException("DiskBPlusTree: not a DiskBPlusTree file");
+        if (header.getInt(PAGE_SIZE_OFFSET) != pageSize || header.getInt(KEY_WIDTH_OFFSET) != keyWidth || header.getInt(VALUE_WIDTH_OFFSET) != values.width())
+            throw new IOException("DiskBPlusTree: file has page size " + header.getInt(PAGE_SIZE_OFFSET) + " and widths " +
+                    header.getInt(KEY_WIDTH_OFFSET) + ", " + header.getInt(VALUE_WIDTH_OFFSET) + " but expected " +
+                    pageSize + " and " + keyWidth + ", " + values.width());
+        root = header.getInt(ROOT_OFFSET);
+        height = header.getInt(HEIGHT_OFFSET);
+        pageCount = header.getInt(PAGE_COUNT_OFFSET);
+        size = header.getLong(SIZE_OFFSET);
+    }
+
+    private void writeHeader() {
+        ByteBuffer b = chunk(0);
+        b.putInt(ROOT_OFFSET, root);
+        b.putInt(HEIGHT_OFFSET, height);
+        b.putInt(PAGE_COUNT_OFFSET, pageCount);
+        b.putLong(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Method to unmap the retired chunks. This must only be called at the start of an operation, when no chunk is in use.
+     * If the JVM provides no way to unmap a buffer, it is left to the garbage collector.
+     */
+    private void release() {
+        for (MappedByteBuffer chunk : retired) UNMAPPER.accept(chunk);
+        retired.clear();
+    }
+
+    /**
+     * @return a function which unmaps a MappedByteBuffer immediately (using sun.misc.Unsafe.invokeCleaner, Java 9+),
+     * or, if that is not available, one which does nothing.
+     */
+    private static Consumer<MappedByteBuffer> unmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            return buffer -> {
+                try {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } catch (ReflectiveOperationException e) {
+                    // Leave it to the garbage collector.
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return buffer -> {
+            };
+        }
+    }
+
+    private static final Consumer<MappedByteBuffer> UNMAPPER = unmapper();
+
+    /**
+     * Method to get the mapped chunk which contains page, mapping it (and evicting the least recently used chunk) if it
+     * is not in the cache. Mapping beyond the end of the file extends the file.
+     */
+    private MappedByteBuffer chunk(int page) {
+        int index = page / chunkPages;
+        MappedByteBuffer result = chunks.get(index);
+        if (result == null) {
+            try {
+                result = channel.map(FileChannel.MapMode.READ_WRITE, (long) index * chunkPages * pageSize, (long) chunkPages * pageSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunks.put(index, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the offset of page within its chunk.
+     */
+    private int base(int page) {
+        return (page % chunkPages) * pageSize;
+    }
+
+    private static int count(ByteBuffer b, int base) {
+        return b.getInt(base + COUNT);
+    }
+
+    private int childOffset(int base, int c) {
+        return base + NODE_HEADER + c * (CHILD + keyWidth);
+    }
+
+    private int keyOffset(int base, int i) {
+        return childOffset(base, i) + CHILD;
+    }
+
+    /**
+     * Method to move length bytes within b (the ranges may overlap).
+     * The casts to Buffer keep this compatible with Java 8, in which position is not overridden by ByteBuffer.
+     */
+    private void move(ByteBuffer b, int from, int to, int length) {
+        if (length == 0) return;
+        ((Buffer) b).position(from);
+        b.get(scratch, 0, length);
+        ((Buffer) b).position(to);
+        b.put(scratch, 0, length);
+    }
+
+    private void copy(ByteBuffer from, int fromOffset, ByteBuffer to, int toOffset, int length) {
+        ((Buffer) from).position(fromOffset);
+        from.get(scratch, 0, length);
+        ((Buffer) to).position(toOffset);
+        to.put(scratch, 0, length);
+    }
+
+    private static void copy(ByteBuffer from, int fromOffset, byte[] to, int toOffset, int length) {
+        ((Buffer) from).position(fromOffset);
+        from.get(to, toOffset, length);
+    }
+
+    private static void copy(byte[] from, int fromOffset, ByteBuffer to, int toOffset, int length) {
+        ((Buffer) to).position(toOffset);
+        to.put(from, fromOffset, length);
+    }
+
+    /**
+     * Cursor over the entries from lo to hi, which follows the links between leaves.
+     * next yields the offset of an entry in buffer, which must be read at once: since the cursor may outlive the
+     * operation which created it, it holds on to page numbers rather than to chunks (see release).
+     */
+    private class LeafCursor {
+        LeafCursor(Key lo, Key hi) {
+            this.hi = hi;
+            page = lo == null ? edgeLeaf(false) : path[findLeaf(lo, 0)];
+            int i = lo == null ? 0 : searchLeaf(chunk(page), base(page), lo);
+            index = i >= 0 ? i : -i - 1;
+            advance();
+        }
+
+        boolean hasNext() {
+            return page != NIL && (hi == null || keys.compare(chunk(page), offset(), hi) <= 0);
+        }
+
+        int next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            buffer = chunk(page);
+            int result = offset();
+            index++;
+            advance();
+            return result;
+        }
+
+        private int offset() {
+            return base(page) + NODE_HEADER + index * entryWidth;
+        }
+
+        /**
+         * Method to move on to the next leaf which has an entry at or after index (skipping empty leaves).
+         */
+        private void advance() {
+            while (page != NIL) {
+                ByteBuffer b = chunk(page);
+                if (index < count(b, base(page))) return;
+                page = b.getInt(base(page) + NEXT);
+                index = 0;
+            }
+        }
+
+        private final Key hi;
+        private int page;
+        private int index;
+        private ByteBuffer buffer;
+    }
+
+    private static final int MAGIC = 0x42504C54;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int PAGE_SIZE_OFFSET = 4;
+    private static final int KEY_WIDTH_OFFSET = 8;
+    private static final int VALUE_WIDTH_OFFSET = 12;
+    private static final int ROOT_OFFSET = 16;
+    private static final int HEIGHT_OFFSET = 20;
+    private static final int PAGE_COUNT_OFFSET = 24;
+    private static final int SIZE_OFFSET = 28;
+    private static final int HEADER_LENGTH = 36;
+
+    // The layout of the header of a node page.
+    private static final int KIND = 0;
+    private static final int COUNT = 4;
+    private static final int NEXT = 8;
+    private static final int PREVIOUS = 12;
+    private static final int NODE_HEADER = 16;
+    private static final int CHILD = Integer.BYTES;
+
+    private static final byte LEAF = 0;
+    private static final byte INTERNAL = 1;
+    private static final int NIL = 0;
+
+    private final FixedWidth<Key> keys;
+    private final FixedWidth<Value> values;
+    private final int pageSize;
+    private final int chunkPages;
+    private final int cacheChunks;
+    private final int keyWidth;
+    private final int entryWidth;
+    private final int leafCapacity;
+    private final int internalCapacity;
+
+    private final FileChannel channel;
+    private final LinkedHashMap<Integer, MappedByteBuffer> chunks;
+    private final List<MappedByteBuffer> retired = new ArrayList<>();
+
+    // The state recorded in the header.
+    private int root;
+    private int height;
+    private int pageCount;
+    private long size;
+
+    // The pages on the path from the root to the current leaf, and the index of the child taken from each internal page.
+    // A B+tree with at least 3 children per internal node (and fewer than 2^31 pages) has fewer than 32 levels.
+    private final int[] path = new int[MAX_HEIGHT];
+    private final int[] indices = new int[MAX_HEIGHT];
+    private static final int MAX_HEIGHT = 40;
+
+    // Scratch space for moving bytes within a page, and for the key being inserted into a parent.
+    private final byte[] scratch;
+    private final byte[] separator;
+}
@@ -0,0 +1,115 @@
+package edu.neu.coe.info6205.balsearchtree;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codec for values which occupy a fixed number of bytes, as required for the keys and values of a DiskBPlusTree.
+ * A key codec must compare encoded keys in place (without decoding them) in the same order as compareTo.
+ *
+ * @param <T> the type of value.
+ */
+public interface FixedWidth<T> {
+
+    /**
+     * @return the number of bytes occupied by each value.
+     */
+    int width();
+
+    /**
+     * Method to encode t at the given (absolute) offset in buffer.
+     */
+    void write(ByteBuffer buffer, int offset, T t);
+
+    /**
+     * Method to decode the value at the given (absolute) offset in buffer.
+     */
+    T read(ByteBuffer buffer, int offset);
+
+    /**
+     * Method to compare the value encoded at the given offset in buffer with t.
+     *
+     * @return a negative, zero or positive number as the encoded value is less than, equal to or greater than t.
+     */
+    int compare(ByteBuffer buffer, int offset, T t);
+
+    FixedWidth<Integer> INTEGER = new FixedWidth<Integer>() {
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Integer t) {
+            buffer.putInt(offset, t);
+        }
+
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+
+        public int compare(ByteBuffer buffer, int offset, Integer t) {
+            return Integer.compare(buffer.getInt(offset), t);
+        }
+    };
+
+    FixedWidth<Long> LONG = new FixedWidth<Long>() {
+        public int width() {
+            return Long.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Long t) {
+            buffer.putLong(offset, t);
+        }
+
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+
+        public int compare(ByteBuffer buffer, int offset, Long t) {
+            return Long.compare(buffer.getLong(offset), t);
+        }
+    };
+
+    /**
+     * Method to yield a codec for strings of up to length characters, each in the range 1 thru 255 (ISO-8859-1),
+     * encoded one byte per character and padded with zeros. Comparing the bytes (unsigned) therefore orders the strings
+     * exactly as String.compareTo does.
+     *
+     * @param length the maximum length of a string.
+     * @return a FixedWidth for such strings.
+     */
+    static FixedWidth<String> string(int length) {
+        return new FixedWidth<String>() {
+            public int width() {
+                return length;
+            }
+
+            public void write(ByteBuffer buffer, int offset, String t) {
+                if (t.length() > length)
+                    throw new IllegalArgumentException("FixedWidth: string is longer than " + length + ": " + t);
+                for (int i = 0; i < length; i++) {
+                    char c = i < t.length() ? t.charAt(i) : 0;
+                    if (i < t.length() && (c == 0 || c > 255))
+                        throw new IllegalArgumentException("FixedWidth: string contains a character which cannot be encoded: " + t);
+                    buffer.put(offset + i, (byte) c);
+                }
+            }
+
+            public String read(ByteBuffer buffer, int offset) {
+                byte[] bytes = new byte[length];
+                int n = 0;
+                while (n < length && (bytes[n] = buffer.get(offset + n)) != 0) n++;
+                return new String(bytes, 0, n, StandardCharsets.ISO_8859_1);
+            }
+
+            public int compare(ByteBuffer buffer, int offset, String t) {
+                for (int i = 0; i < length; i++) {
+                    int b = buffer.get(offset + i) & 0xFF;
+                    int c = i < t.length() ? t.charAt(i) : 0;
+                    if (b != c) return b - c;
+                    if (b == 0) return 0;
+                }
+                return length - t.length();
+            }
+        };
+    }
+}
@@ -4,39 +4,505 @@
 
 package edu.neu.coe.info6205.balsearchtree;
 
-public class TwoFourTree<Key extends Comparable<Key>, Value> {
+import edu.neu.coe.info6205.symbolTable.BstDetail;
 
-    private Node root;
+import java.util.*;
+import java.util.function.BiFunction;
 
-    private class Node {
-        private final Value value;
-        private final Key key1;
-        private final Key key2;
-        private final Key key3;
-        private Node left, middle, right;
+/**
+ * B-tree of configurable order: with the default order of 4, this is a 2-3-4 tree (hence the name).
+ * <p>
+ * A tree of order m is a tree in which each node holds up to m-1 keys (in ascending order) in an array,
+ * and each internal node with k keys has k+1 children, the subtree between two adjacent keys holding the keys between them.
+ * Every node other than the root holds at least ceil(m/2)-1 keys, and all of the leaves are at the same depth,
+ * so the depth is at most about log(N) to the base m/2.
+ * Because each node is searched within a contiguous array, a wide node makes much better use of each cache line
+ * (and, on disk, of each page) than a chain of binary nodes.
+ * <p>
+ * A put which overfills a leaf splits it, moving the median key up into the parent, which may split in turn,
+ * so that the tree grows at the root. A delete takes its key from a leaf (a key in an internal node is first replaced by
+ * its predecessor); a node left with too few keys borrows one from a sibling (through the parent) if it can,
+ * otherwise it is merged with a sibling, taking the separating key from the parent, which may underflow in turn.
+ * All of the operations are iterative: the path from the root is recorded in a pair of arrays.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class TwoFourTree<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
 
-        public Node(Value value, Key key1, Key key2, Key key3) {
-            this.value = value;
-            this.key1 = key1;
-            this.key2 = key2;
-            this.key3 = key3;
-        }
+    /**
+     * Constructor for an empty B-tree of the given order.
+     *
+     * @param order the maximum number of children of a node (at least 3).
+     */
+    public TwoFourTree(int order) {
+        if (order < 3) throw new IllegalArgumentException("TwoFourTree: order must be at least 3: " + order);
+        this.order = order;
+        this.minKeys = (order + 1) / 2 - 1;
     }
 
+    public TwoFourTree() {
+        this(4);
+    }
+
+    @Override
     public Value get(Key key) {
+        Node node = root;
+        while (node != null) {
+            int i = node.search(key);
+            if (i >= 0) return node.values[i];
+            node = node.children == null ? null : node.children[-i - 1];
+        }
         return null;
-//        return get(key, root);
     }
 
-    private Node cf(Key key, Node node, Key k, Node n) {
-        if (key.compareTo(k) == 0) return node;
-        else if (key.compareTo(k) < 0) return n;
-        else return null;
+    @Override
+    public Boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Method to put the key/value pair into this tree.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key.
+     * @return the previous value associated with key, or null if the key was not present.
+     */
+    @Override
+    public Value put(Key key, Value value) {
+        if (root == null) {
+            root = new Node(false);
+            root.insert(0, key, value, null);
+            size = 1;
+            return null;
+        }
+        int d = 0;
+        Node node = root;
+        while (true) {
+            int i = node.search(key);
+            if (i >= 0) {
+                Value result = node.values[i];
+                node.values[i] = value;
+                return result;
+            }
+            if (node.children == null) {
+                node.insert(-i - 1, key, value, null);
+                size++;
+                break;
+            }
+            d = push(d, node, -i - 1);
+            node = node.children[-i - 1];
+        }
+        // Split overfull nodes, from the leaf upwards.
+        while (node.n == order) {
+            int mid = node.n / 2;
+            Key midKey = node.keys[mid];
+            Value midValue = node.values[mid];
+            Node sibling = node.split(mid);
+            if (d == 0) {
+                Node top = new Node(true);
+                top.children[0] = node;
+                top.insert(0, midKey, midValue, sibling);
+                root = top;
+                return null;
+            }
+            d--;
+            path[d].insert(indices[d], midKey, midValue, sibling);
+            node = path[d];
+        }
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        for (Map.Entry<Key, Value> entry : map.entrySet()) put(entry.getKey(), entry.getValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        Set<Key> result = new LinkedHashSet<>();
+        Iterator<Key> keys = rangeIterator(null, null);
+        while (keys.hasNext()) result.add(keys.next());
+        return result;
+    }
+
+    /**
+     * Method to delete the given key, borrowing from or merging with siblings as necessary.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void delete(Key key) {
+        int d = 0;
+        Node node = root;
+        int i = -1;
+        while (node != null) {
+            i = node.search(key);
+            if (i >= 0) break;
+            if (node.children == null) return;
+            d = push(d, node, -i - 1);
+            node = node.children[-i - 1];
+        }
+        if (node == null) return;
+        if (node.children != null) {
+            // Replace the key by its predecessor (the maximum of the subtree to its left) and delete that instead.
+            Node target = node;
+            int k = i;
+            d = push(d, node, i);
+            node = node.children[i];
+            while (node.children != null) {
+                d = push(d, node, node.n);
+                node = node.children[node.n];
+            }
+            i = node.n - 1;
+            target.keys[k] = node.keys[i];
+            target.values[k] = node.values[i];
+        }
+        node.remove(i, i);
+        size--;
+        // Restore the minimum occupancy, from the leaf upwards.
+        while (d > 0 && node.n < minKeys) {
+            d--;
+            Node parent = path[d];
+            int c = indices[d];
+            Node left = c > 0 ? parent.children[c - 1] : null;
+            Node right = c < parent.n ? parent.children[c + 1] : null;
+            if (left != null && left.n > minKeys) borrowFromLeft(parent, c, left, node);
+            else if (right != null && right.n > minKeys) borrowFromRight(parent, c, node, right);
+            else if (left != null) merge(parent, c - 1, left, node);
+            else merge(parent, c, node, right);
+            node = parent;
+        }
+        if (root.n == 0) root = root.children != null ? root.children[0] : null;
+    }
+
+    /**
+     * Since a B-tree keeps its balance, there is no point in choosing between predecessor and successor at random.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void deleteRandom(Key key) {
+        delete(key);
+    }
+
+    @Override
+    public void deleteMin() {
+        if (root == null) return;
+        Node node = root;
+        while (node.children != null) node = node.children[0];
+        delete(node.keys[0]);
+    }
+
+    @Override
+    public void deleteMax() {
+        if (root == null) return;
+        Node node = root;
+        while (node.children != null) node = node.children[node.n];
+        delete(node.keys[node.n - 1]);
+    }
+
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        EntryIterator entries = new EntryIterator(null, null);
+        while (entries.hasNext()) {
+            entries.next();
+            f.apply(entries.key(), entries.value());
+        }
+    }
+
+    /**
+     * Method to yield a lazy iterator over the keys of this tree from lo to hi (inclusive), in order.
+     * The iterator keeps one frame per level, and so can safely be abandoned early.
+     * The tree must not be modified while the iteration is in progress.
+     *
+     * @param lo the lower bound (inclusive), or null for no lower bound.
+     * @param hi the upper bound (inclusive), or null for no upper bound.
+     * @return an iterator over the keys in range.
+     */
+    public Iterator<Key> rangeIterator(Key lo, Key hi) {
+        EntryIterator entries = new EntryIterator(lo, hi);
+        return new Iterator<Key>() {
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            public Key next() {
+                entries.next();
+                return entries.key();
+            }
+        };
+    }
+
+    /**
+     * Method to apply f to each key and value from lo to hi (inclusive), in order.
+     *
+     * @param lo the lower bound (inclusive), or null for no lower bound.
+     * @param hi the upper bound (inclusive), or null for no upper bound.
+     * @param f  the function to apply.
+     * @return the number of entries visited.
+     */
+    public int rangeTraverse(Key lo, Key hi, BiFunction<Key, Value, Void> f) {
+        EntryIterator entries = new EntryIterator(lo, hi);
+        int result = 0;
+        for (; entries.hasNext(); result++) {
+            entries.next();
+            f.apply(entries.key(), entries.value());
+        }
+        return result;
+    }
+
+    /**
+     * Yield the total depth of this tree (all of its leaves are at the same depth). If it is empty, then depth will be 0.
+     *
+     * @return the number of levels in this tree.
+     */
+    @Override
+    public int depth() {
+        int result = 0;
+        for (Node node = root; node != null; node = node.children == null ? null : node.children[0]) result++;
+        return result;
+    }
+
+    /**
+     * @return the order of this tree (the maximum number of children of a node).
+     */
+    public int getOrder() {
+        return order;
     }
 
-//    private Value get(Key key, Node node) {
-//        if (node == null) return null;
-//        Node n = cf(key, node, node.key1, node.left);
-//        if (n)
-//    }
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TwoFourTree{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    /**
+     * Method to move the last key of left up into parent (at c-1), and the key there down into node (first).
+     */
+    private void borrowFromLeft(Node parent, int c, Node left, Node node) {
+        System.arraycopy(node.keys, 0, node.keys, 1, node.n);
+        System.arraycopy(node.values, 0, node.values, 1, node.n);
+        node.keys[0] = parent.keys[c - 1];
+        node.values[0] = parent.values[c - 1];
+        if (node.children != null) {
+            System.arraycopy(node.children, 0, node.children, 1, node.n + 1);
+            node.children[0] = left.children[left.n];
+        }
+        node.n++;
+        parent.keys[c - 1] = left.keys[left.n - 1];
+        parent.values[c - 1] = left.values[left.n - 1];
+        left.remove(left.n - 1, left.n);
+    }
+
+    /**
+     * Method to move the first key of right up into parent (at c), and the key there down into node (last).
+     */
+    private void borrowFromRight(Node parent, int c, Node node, Node right) {
+        node.insert(node.n, parent.keys[c], parent.values[c], right.children != null ? right.children[0] : null);
+        parent.keys[c] = right.keys[0];
+        parent.values[c] = right.values[0];
+        right.remove(0, 0);
+    }
+
+    /**
+     * Method to merge right into left, together with the key of parent (at index k) which separates them.
+     */
+    private void merge(Node parent, int k, Node left, Node right) {
+        left.keys[left.n] = parent.keys[k];
+        left.values[left.n] = parent.values[k];
+        System.arraycopy(right.keys, 0, left.keys, left.n + 1, right.n);
+        System.arraycopy(right.values, 0, left.values, left.n + 1, right.n);
+        if (left.children != null) System.arraycopy(right.children, 0, left.children, left.n + 1, right.n + 1);
+        left.n += right.n + 1;
+        parent.remove(k, k + 1);
+    }
+
+    /**
+     * Method to record node, and the index of the child (or key) taken from it, at level d of the path.
+     *
+     * @return the new length of the path.
+     */
+    private int push(int d, Node node, int index) {
+        if (d == path.length) {
+            path = Arrays.copyOf(path, d * 2);
+            indices = Arrays.copyOf(indices, d * 2);
+        }
+        path[d] = node;
+        indices[d] = index;
+        return d + 1;
+    }
+
+    /**
+     * A node, holding n keys (and values), and, if it is internal, n+1 children.
+     * The arrays have room for one more key (and child) than the order allows, so that a node can overflow before it is split.
+     */
+    private class Node {
+        @SuppressWarnings("unchecked")
+        Node(boolean internal) {
+            keys = (Key[]) new Comparable[order];
+            values = (Value[]) new Object[order];
+            children = internal ? (Node[]) new TwoFourTree.Node[order + 1] : null;
+        }
+
+        /**
+         * Binary search for key amongst the keys of this node.
+         *
+         * @return the index of key if present; otherwise -(i+1) where i is the index of the child which may contain it.
+         */
+        int search(Key key) {
+            int lo = 0, hi = n - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cf = key.compareTo(keys[mid]);
+                if (cf < 0) hi = mid - 1;
+                else if (cf > 0) lo = mid + 1;
+                else return mid;
+            }
+            return -(lo + 1);
+        }
+
+        /**
+         * Method to insert key and value at index i, and child (if internal) immediately to their right.
+         */
+        void insert(int i, Key key, Value value, Node child) {
+            System.arraycopy(keys, i, keys, i + 1, n - i);
+            System.arraycopy(values, i, values, i + 1, n - i);
+            keys[i] = key;
+            values[i] = value;
+            if (children != null) {
+                System.arraycopy(children, i + 1, children, i + 2, n - i);
+                children[i + 1] = child;
+            }
+            n++;
+        }
+
+        /**
+         * Method to remove the key (and value) at index i and, if internal, the child at index c (either i or i+1).
+         */
+        void remove(int i, int c) {
+            System.arraycopy(keys, i + 1, keys, i, n - i - 1);
+            System.arraycopy(values, i + 1, values, i, n - i - 1);
+            if (children != null) {
+                System.arraycopy(children, c + 1, children, c, n - c);
+                children[n] = null;
+            }
+            n--;
+            keys[n] = null;
+            values[n] = null;
+        }
+
+        /**
+         * Method to move the keys (and children) to the right of index mid into a new sibling, and to drop the key at mid
+         * (which the caller moves up into the parent).
+         *
+         * @return the new sibling.
+         */
+        Node split(int mid) {
+            Node result = new Node(children != null);
+            result.n = n - mid - 1;
+            System.arraycopy(keys, mid + 1, result.keys, 0, result.n);
+            System.arraycopy(values, mid + 1, result.values, 0, result.n);
+            Arrays.fill(keys, mid, n, null);
+            Arrays.fill(values, mid, n, null);
+            if (children != null) {
+                System.arraycopy(children, mid + 1, result.children, 0, result.n + 1);
+                Arrays.fill(children, mid + 1, n + 1, null);
+            }
+            n = mid;
+            return result;
+        }
+
+        final Key[] keys;
+        final Value[] values;
+        final Node[] children;
+        int n = 0;
+    }
+
+    /**
+     * Iterator over the entries from lo to hi, which keeps a frame (node and index of the next key) for each level.
+     * Unlike a java.util.Iterator, next does not return the entry: use key and value instead.
+     */
+    private class EntryIterator {
+        @SuppressWarnings("unchecked")
+        EntryIterator(Key lo, Key hi) {
+            this.hi = hi;
+            int levels = depth();
+            nodes = (Node[]) new TwoFourTree.Node[Math.max(levels, 1)];
+            positions = new int[Math.max(levels, 1)];
+            Node node = root;
+            while (node != null) {
+                int i = lo == null ? 0 : node.search(lo);
+                if (i < 0) i = -i - 1;
+                nodes[top] = node;
+                positions[top++] = i;
+                // If lo itself is in this node, then everything in the child to its left is too small.
+                node = node.children == null || (lo != null && i < node.n && lo.compareTo(node.keys[i]) == 0) ? null : node.children[i];
+            }
+            advance();
+        }
+
+        boolean hasNext() {
+            return top > 0 && (hi == null || hi.compareTo(nodes[top - 1].keys[positions[top - 1]]) >= 0);
+        }
+
+        void next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node node = nodes[top - 1];
+            int i = positions[top - 1]++;
+            key = node.keys[i];
+            value = node.values[i];
+            if (node.children != null)
+                for (Node child = node.children[i + 1]; child != null; child = child.children == null ? null : child.children[0]) {
+                    nodes[top] = child;
+                    positions[top++] = 0;
+                }
+            advance();
+        }
+
+        Key key() {
+            return key;
+        }
+
+        Value value() {
+            return value;
+        }
+
+        /**
+         * Method to pop the frames whose keys are exhausted.
+         */
+        private void advance() {
+            while (top > 0 && positions[top - 1] >= nodes[top - 1].n) top--;
+        }
+
+        private final Key hi;
+        private final Node[] nodes;
+        private final int[] positions;
+        private int top = 0;
+        private Key key;
+        private Value value;
+    }
+
+    private Node root = null;
+
+    private int size = 0;
+
+    // The order of this tree, i.e. the maximum number of children of a node; and the minimum number of keys of a non-root node.
+    private final int order;
+    private final int minKeys;
+
+    // The nodes on the path from the root to the node being updated, and the index (of child or key) taken at each.
+    // Grown as necessary and reused between operations.
+    @SuppressWarnings("unchecked")
+    private Node[] path = (Node[]) new TwoFourTree.Node[16];
+    private int[] indices = new int[16];
 }
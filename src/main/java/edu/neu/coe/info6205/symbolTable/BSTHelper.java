@@ -0,0 +1,84 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.StatPack;
+
+/**
+ * Helper class for BSTSimple which receives, at the end of each get, put and delete, a description of the work done.
+ * <p>
+ * In this (base) form, the helper does nothing, and BSTSimple does not even call it:
+ * since instrumented() is false, the only cost is the test of a final boolean field at the end of each operation.
+ * Thus, this helper may be left in place in production. See InstrumentedBSTHelper for the helper which collects statistics.
+ * <p>
+ * A helper is created from the configuration by create: the section [bsthelper] determines whether to instrument
+ * (like [helper] for sorting), and the section [bstinstrumenting] determines which statistics are collected
+ * (like [instrumenting]).
+ */
+public class BSTHelper {
+
+    /**
+     * @return false
+     */
+    public boolean instrumented() {
+        return false;
+    }
+
+    /**
+     * Method to record the work done by a get (or contains).
+     *
+     * @param visits the number of nodes visited (each of which costs exactly one key comparison).
+     */
+    public void get(int visits) {
+    }
+
+    /**
+     * Method to record the work done by a put (or insert).
+     *
+     * @param visits       the number of nodes visited (each of which costs exactly one key comparison).
+     * @param countUpdates the number of count fields updated (zero if the value of an existing key was replaced).
+     */
+    public void put(int visits, int countUpdates) {
+    }
+
+    /**
+     * Method to record the work done by a delete (or deleteRandom).
+     *
+     * @param visits          the number of nodes visited in finding the key (each costs exactly one key comparison).
+     * @param successorSearch the number of nodes visited (without comparing keys) in finding the successor
+     *                        (or predecessor) of a node with two children; otherwise zero.
+     * @param countUpdates    the number of count fields updated.
+     */
+    public void delete(int visits, int successorSearch, int countUpdates) {
+    }
+
+    /**
+     * @return the StatPack in which statistics are collected (null for this base helper).
+     */
+    public StatPack getStatPack() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "BSTHelper (not instrumented)";
+    }
+
+    /**
+     * Factory method to create a BSTHelper according to the configuration.
+     *
+     * @param n      the expected number of operations (unused, since no samples are kept).
+     * @param config the configuration.
+     * @return an InstrumentedBSTHelper if [bsthelper] instrument is true, otherwise NONE.
+     */
+    public static BSTHelper create(int n, Config config) {
+        return config.getBoolean(BST_HELPER, INSTRUMENT) ? new InstrumentedBSTHelper(n, config) : NONE;
+    }
+
+    /**
+     * The helper which does nothing.
+     */
+    public static final BSTHelper NONE = new BSTHelper();
+
+    public static final String BST_HELPER = "bsthelper";
+    public static final String INSTRUMENT = "instrument";
+}
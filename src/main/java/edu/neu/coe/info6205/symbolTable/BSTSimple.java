@@ -1,30 +1,289 @@
 package edu.neu.coe.info6205.symbolTable;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import edu.neu.coe.info6205.union_find.UF_HWQUPC;
-import edu.neu.coe.info6205.util.Benchmark_Timer;
-
-public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
+/**
+ * Simple (unbalanced) binary search tree.
+ * <p>
+ * All of the operations which walk from the root towards the leaves (get, put, the various deletes and depth)
+ * are implemented iteratively so that a degenerate tree (for example, one built from sorted keys, or one which has
+ * been skewed by many Hibbard deletions) cannot cause a StackOverflowError.
+ * Where an operation changes the shape of the tree, the nodes visited are recorded in path so that their count and
+ * height fields can be fixed up without recursion. Thus, the depth of the tree is always available in constant time.
+ * Similarly, the internal path length (and hence the average depth) is kept up to date by each put and delete, using
+ * the counts: see pathLength.
+ * <p>
+ * If a Bloom filter is enabled (see setBloomFilter), the Key type must have a hashCode which is consistent with its
+ * compareTo, i.e. keys which compare as equal must have equal hash codes (as is the case for String, Integer and the
+ * other boxed types). Otherwise, contains may report as absent a key which is present. Without a filter, hashCode is
+ * never used.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class BSTSimple<Key extends Comparable<Key>, Value> implements BstOrdered<Key, Value>, Iterable<Map.Entry<Key, Value>> {
+    /**
+     * Method to determine whether key is present (with a non-null value).
+     * If there is a Bloom filter (see setBloomFilter), most absent keys are rejected by it without searching the tree.
+     *
+     * @param key the key.
+     * @return true if get(key) would yield a value.
+     */
     @Override
     public Boolean contains(Key key) {
+        if (bloom != null && !bloom.mightContain(key.hashCode())) {
+            if (instrumented) helper.get(0);
+            return false;
+        }
         return get(key) != null;
     }
 
+    /**
+     * Method to put a blocked Bloom filter (see BloomFilter) in front of contains, so that, for most absent keys,
+     * contains costs one or two cache misses rather than a search of the tree. This is worthwhile when most lookups miss.
+     * <p>
+     * Each key inserted by put is added to the filter. Since keys cannot be removed from a Bloom filter, a deleted key
+     * remains in it (as a false positive, which contains resolves by searching) until the filter is rebuilt from the
+     * tree. That happens (within the put or delete concerned) once the deletions since it was built amount to a quarter
+     * of the keys it holds, or once it holds more keys than it was sized for (twice the size of the tree when it was
+     * built): thus the cost of rebuilding is O(1) amortized per put or delete, and contains never modifies the tree.
+     * putAllSorted, split and join also rebuild the filter, so that with a filter they take O(N) time; the parallel batch
+     * methods suspend it while they run and rebuild it once at the end.
+     * <p>
+     * The filter is keyed by hashCode, whereas the tree is ordered by compareTo: so keys which are equal according to
+     * compareTo must have equal hash codes (see the class documentation).
+     *
+     * @param bitsPerKey the number of bits per key (10 gives a false-positive rate of about 1%), or 0 for no filter.
+     */
+    public void setBloomFilter(int bitsPerKey) {
+        if (bitsPerKey < 0) throw new IllegalArgumentException("BSTSimple: bitsPerKey must not be negative: " + bitsPerKey);
+        bloomBitsPerKey = bitsPerKey;
+        bloom = null;
+        if (bitsPerKey > 0) rebuildBloomFilter();
+    }
+
     /**
      * This implementation of putAll ensures that the keys are inserted into this BST in random order.
+     * However, if map is a SortedMap in natural order, then its entries are bulk-loaded by putAllSorted instead.
      *
      * @param map a map of key value pairs
      */
     @Override
     public void putAll(Map<Key, Value> map) {
+        if (map instanceof SortedMap && ((SortedMap<Key, Value>) map).comparator() == null) {
+            putAllSorted(map.entrySet().iterator());
+            return;
+        }
         List<Key> ks = new ArrayList<>(map.keySet());
         Collections.shuffle(ks);
         for (Key k : ks) put(k, map.get(k));
     }
 
+    /**
+     * Method to bulk-load entries, which must be in strictly ascending key order, into this BST.
+     * The entries are merged with the existing nodes (an entry whose key is already present replaces its value)
+     * and the whole tree is then built in perfectly balanced form, with correct counts and heights.
+     * This takes time proportional to the number of entries plus the current size, with no key comparisons other than
+     * those needed for the merge.
+     * The entries are read (and their order checked) before anything is changed, so that if they are out of order,
+     * no value is replaced and no node is allocated.
+     *
+     * @param entries an iterator over entries in strictly ascending key order.
+     * @throws IllegalArgumentException if the keys are not in strictly ascending order
+     *                                  (in which case this BST is unchanged).
+     */
+    public void putAllSorted(Iterator<? extends Map.Entry<Key, Value>> entries) {
+        List<Map.Entry<Key, Value>> sorted = new ArrayList<>();
+        Key previous = null;
+        while (entries.hasNext()) {
+            Map.Entry<Key, Value> entry = entries.next();
+            Key key = entry.getKey();
+            if (previous != null && previous.compareTo(key) >= 0)
+                throw new IllegalArgumentException("putAllSorted: keys are not in strictly ascending order: " + previous + ", " + key);
+            previous = key;
+            sorted.add(entry);
+        }
+        List<Node> nodes = new ArrayList<>(size() + sorted.size());
+        NodeIterator existing = new NodeIterator(root, null, null);
+        Node next = existing.hasNext() ? existing.next() : null;
+        for (Map.Entry<Key, Value> entry : sorted) {
+            Key key = entry.getKey();
+            while (next != null && next.key.compareTo(key) < 0) {
+                nodes.add(next);
+                next = existing.hasNext() ? existing.next() : null;
+            }
+            if (next != null && next.key.compareTo(key) == 0) {
+                next.value = entry.getValue();
+                nodes.add(next);
+                next = existing.hasNext() ? existing.next() : null;
+            } else nodes.add(newNode(key, entry.getValue()));
+        }
+        while (next != null) {
+            nodes.add(next);
+            next = existing.hasNext() ? existing.next() : null;
+        }
+        @SuppressWarnings("unchecked") Node[] array = nodes.toArray((Node[]) new BSTSimple.Node[0]);
+        root = build(array, 0, array.length);
+        maxSize = array.length;
+        profiled = false;
+        refreshBloomFilter();
+    }
+
+    /**
+     * Method to put all of the entries of map into this BST, using the given fork-join pool.
+     * The entries are sorted by key, and this BST is split at the median key, so that each half of the entries can be
+     * put (recursively) into its own half of the tree by a separate task. The halves are then joined back together.
+     * The resulting tree contains the same keys as it would after putAll, although its shape may differ.
+     *
+     * @param map  a map of key value pairs.
+     * @param pool the fork-join pool on which to run the tasks.
+     */
+    public void putAll(Map<Key, Value> map, ForkJoinPool pool) {
+        List<Map.Entry<Key, Value>> entries = new ArrayList<>(map.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+        // The Bloom filter (if any) is suspended during the batch, so that each split and join does not rebuild it.
+        int bitsPerKey = bloomBitsPerKey;
+        setBloomFilter(0);
+        pool.invoke(new BatchTask<>(this, entries, 0, entries.size(), Map.Entry::getKey, (tree, entry) -> tree.put(entry.getKey(), entry.getValue())));
+        setBloomFilter(bitsPerKey);
+    }
+
+    /**
+     * Method to delete (using Hibbard deletion) all of the given keys from this BST, using the given fork-join pool.
+     * The keys are partitioned in the same way as for putAll(Map, ForkJoinPool).
+     *
+     * @param keys the keys to delete (keys which are not present are ignored).
+     * @param pool the fork-join pool on which to run the tasks.
+     */
+    public void deleteAll(Collection<Key> keys, ForkJoinPool pool) {
+        List<Key> ks = new ArrayList<>(keys);
+        Collections.sort(ks);
+        int bitsPerKey = bloomBitsPerKey;
+        setBloomFilter(0);
+        pool.invoke(new BatchTask<>(this, ks, 0, ks.size(), k -> k, BSTSimple::delete));
+        setBloomFilter(bitsPerKey);
+    }
+
+    /**
+     * Method to split this BST at key.
+     * This BST retains the keys less than key, while the keys greater than or equal to key are moved into the result.
+     * The nodes on the path to key are divided between the two trees and their counts and heights are fixed up;
+     * all other nodes remain where they are. Thus split takes time proportional to the depth of the tree.
+     *
+     * @param key the key at which to split this BST.
+     * @return a new BST (with the same random source, alpha, pool capacity and helper) containing all of the keys greater than or
+     * equal to key.
+     */
+    public BSTSimple<Key, Value> split(Key key) {
+        BSTSimple<Key, Value> result = new BSTSimple<>(random, alpha, poolCapacity, helper);
+        // The nodes most recently added to the larger spine of this tree and to the smaller spine of the result.
+        Node smallerTail = null;
+        Node largerTail = null;
+        int n = 0;
+        Node node = root;
+        root = null;
+        while (node != null) {
+            n = push(n, node);
+            if (node.key.compareTo(key) < 0) {
+                if (smallerTail == null) root = node;
+                else smallerTail.larger = node;
+                smallerTail = node;
+                node = node.larger;
+            } else {
+                if (largerTail == null) result.root = node;
+                else largerTail.smaller = node;
+                largerTail = node;
+                node = node.smaller;
+            }
+        }
+        if (smallerTail != null) smallerTail.larger = null;
+        if (largerTail != null) largerTail.smaller = null;
+        // Each node on the path now has, as one child, either null or a node which comes after it on the path.
+        for (int i = n - 1; i >= 0; i--) {
+            Node x = path[i];
+            x.count = 1 + size(x.smaller) + size(x.larger);
+            x.height = 1 + Math.max(height(x.smaller), height(x.larger));
+        }
+        maxSize = size();
+        result.maxSize = result.size();
+        profiled = false;
+        result.profiled = false;
+        refreshBloomFilter();
+        result.bloomBitsPerKey = bloomBitsPerKey;
+        result.refreshBloomFilter();
+        return result;
+    }
+
+    /**
+     * Method to join two BSTs, all of whose keys in left are less than all of the keys in right.
+     * The boundary node of the larger tree (the maximum of left or the minimum of right) is detached from it and
+     * becomes the new root, with the two trees as its children. Thus join takes time proportional to the depth of the
+     * larger tree, and the depth of the result is at most one more than the greater of the two depths.
+     *
+     * @param left  the BST with the smaller keys, which receives all of the nodes.
+     * @param right the BST with the larger keys, which is left empty.
+     * @param <K>   the key type.
+     * @param <V>   the value type.
+     * @return left.
+     * @throws IllegalArgumentException if the key ranges of left and right overlap (in which case neither is changed).
+     */
+    public static <K extends Comparable<K>, V> BSTSimple<K, V> join(BSTSimple<K, V> left, BSTSimple<K, V> right) {
+        if (left.root == null) left.root = right.root;
+        else if (right.root != null) {
+            K max = left.maxNode().key;
+            K min = right.minNode().key;
+            if (max.compareTo(min) >= 0)
+                throw new IllegalArgumentException("join: key ranges overlap: " + max + ", " + min);
+            BSTSimple<K, V>.Node pivot = left.size() >= right.size() ? left.detachMax() : right.detachMin();
+            pivot.smaller = left.root;
+            pivot.larger = right.root;
+            pivot.count = 1 + left.size() + right.size();
+            pivot.height = 1 + Math.max(left.depth(), right.depth());
+            left.root = pivot;
+        }
+        right.root = null;
+        left.maxSize = left.size();
+        right.maxSize = 0;
+        left.rebuilds += right.rebuilds;
+        left.rebuiltNodes += right.rebuiltNodes;
+        right.rebuilds = 0;
+        right.rebuiltNodes = 0;
+        left.profiled = false;
+        right.profiled = false;
+        left.refreshBloomFilter();
+        right.refreshBloomFilter();
+        return left;
+    }
+
+    /**
+     * Method to take an immutable, array-based snapshot of this BST, for lookups which are not interleaved with updates
+     * (for example, after a bulk load). This takes time O(N); this BST is unchanged and may continue to be updated,
+     * but such updates are not seen by the snapshot.
+     *
+     * @return a FrozenBST with the same entries as this BST.
+     */
+    @SuppressWarnings("unchecked")
+    public FrozenBST<Key, Value> freeze() {
+        int n = size();
+        Key[] ks = (Key[]) new Comparable[n];
+        Value[] vs = (Value[]) new Object[n];
+        NodeIterator nodes = new NodeIterator(root, null, null);
+        for (int i = 0; nodes.hasNext(); i++) {
+            Node node = nodes.next();
+            ks[i] = node.key;
+            vs[i] = node.value;
+        }
+        return new FrozenBST<>(ks, vs);
+    }
+
     @Override
     public int size() {
         return root != null ? root.count : 0;
@@ -32,44 +291,224 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
 
     @Override
     public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
-        doTraverse(0, root, f);
+        NodeIterator nodes = new NodeIterator(root, null, null);
+        while (nodes.hasNext()) {
+            Node node = nodes.next();
+            f.apply(node.key, node.value);
+        }
+    }
+
+    /**
+     * Method to yield a lazy iterator over the entries of this BST, in key order.
+     * The iterator uses an explicit stack (of at most depth() nodes), and so can safely be abandoned early.
+     * The BST must not be modified while the iteration is in progress.
+     *
+     * @return an iterator over the entries of this BST.
+     */
+    @Override
+    public Iterator<Map.Entry<Key, Value>> iterator() {
+        NodeIterator nodes = new NodeIterator(root, null, null);
+        return new Iterator<Map.Entry<Key, Value>>() {
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            public Map.Entry<Key, Value> next() {
+                Node node = nodes.next();
+                return new AbstractMap.SimpleImmutableEntry<>(node.key, node.value);
+            }
+        };
+    }
+
+    /**
+     * Method to yield a spliterator over the entries of this BST, in key order.
+     * The spliterator splits at subtree roots, and since each node knows the size of its subtree,
+     * the size of each split is known exactly.
+     *
+     * @return a spliterator over the entries of this BST.
+     */
+    @Override
+    public Spliterator<Map.Entry<Key, Value>> spliterator() {
+        return new EntrySpliterator(null, root);
+    }
+
+    /**
+     * @return a sequential stream of the entries of this BST, in key order.
+     */
+    public Stream<Map.Entry<Key, Value>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a parallel stream of the entries of this BST, which is split at subtree roots.
+     */
+    public Stream<Map.Entry<Key, Value>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
     @Override
     public Value get(Key key) {
+        if (instrumented) helper.get(visits(key));
         return get(root, key);
     }
 
+    /**
+     * Method to put the key/value pair into this BST.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key.
+     * @return the previous value associated with key, or null if the key was not present.
+     */
     @Override
     public Value put(Key key, Value value) {
-        NodeValue nodeValue = put(root, key, value);
-        if (root == null) root = nodeValue.node;
-        if (nodeValue.value == null) root.count++;
-        return nodeValue.value;
+        Node node = putNode(key, value);
+        if (node == null) return null;
+        Value result = node.value;
+        node.value = value;
+        return result;
     }
 
+    /**
+     * Method to put the key/value pair into this BST, reporting whether the key was inserted or its value replaced.
+     * Unlike put, the outcome is unambiguous even when null values are stored.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key.
+     * @return true if key was newly inserted; false if the value of an existing key was replaced.
+     */
+    public boolean insert(Key key, Value value) {
+        Node node = putNode(key, value);
+        if (node == null) return true;
+        node.value = value;
+        return false;
+    }
+
+    /**
+     * Method to delete the given key using Hibbard deletion, i.e. a node with two children is replaced by its successor.
+     *
+     * @param key the key to delete.
+     */
     public void delete(Key key) {
-        root = delete(root, key);
+        delete(key, true);
     }
-    
+
+    /**
+     * Method to delete the given key, replacing a node with two children by either its successor or its predecessor.
+     *
+     * @param key the key to delete.
+     */
     public void deleteRandom(Key key) {
-        root = deleteRandom(root, key);
+        delete(key, random.nextBoolean());
     }
-    
 
     @Override
     public void deleteMin() {
-        root = deleteMin(root);
+        if (root == null) return;
+        recycle(detachMin());
+        if (bloom != null) deletedFromBloomFilter();
+        if (alpha < 1) afterDelete();
     }
-    
+
     @Override
     public void deleteMax() {
-        root = deleteMax(root);
+        if (root == null) return;
+        recycle(detachMax());
+        if (bloom != null) deletedFromBloomFilter();
+        if (alpha < 1) afterDelete();
     }
 
+    /**
+     * @return a view of the keys of this BST, in order. The view is not modifiable.
+     */
     @Override
     public Set<Key> keySet() {
-        return null;
+        return new AbstractSet<Key>() {
+            @Override
+            public Iterator<Key> iterator() {
+                return new KeyIterator(new NodeIterator(root, null, null));
+            }
+
+            @Override
+            public int size() {
+                return BSTSimple.this.size();
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public boolean contains(Object o) {
+                return o != null && getNode(root, (Key) o) != null;
+            }
+        };
+    }
+
+    @Override
+    public int rank(Key key) {
+        int result = 0;
+        Node node = root;
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf < 0) node = node.smaller;
+            else if (cf > 0) {
+                result += 1 + size(node.smaller);
+                node = node.larger;
+            } else return result + size(node.smaller);
+        }
+        return result;
+    }
+
+    @Override
+    public Key select(int k) {
+        if (k < 0 || k >= size()) throw new IllegalArgumentException("select: k=" + k + " is out of range for size " + size());
+        Node node = root;
+        while (true) {
+            int t = size(node.smaller);
+            if (k < t) node = node.smaller;
+            else if (k > t) {
+                k -= t + 1;
+                node = node.larger;
+            } else return node.key;
+        }
+    }
+
+    @Override
+    public Key floor(Key key) {
+        Key result = null;
+        Node node = root;
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf < 0) node = node.smaller;
+            else if (cf > 0) {
+                result = node.key;
+                node = node.larger;
+            } else return node.key;
+        }
+        return result;
+    }
+
+    @Override
+    public Key ceiling(Key key) {
+        Key result = null;
+        Node node = root;
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf > 0) node = node.larger;
+            else if (cf < 0) {
+                result = node.key;
+                node = node.smaller;
+            } else return node.key;
+        }
+        return result;
+    }
+
+    @Override
+    public int rangeCount(Key lo, Key hi) {
+        if (lo.compareTo(hi) > 0) return 0;
+        return rank(hi) - rank(lo) + (getNode(root, hi) != null ? 1 : 0);
+    }
+
+    @Override
+    public Iterator<Key> rangeIterator(Key lo, Key hi) {
+        return new KeyIterator(new NodeIterator(root, lo, hi));
     }
 
     /**
@@ -79,14 +518,79 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
      * @return the depth of the key (root: 0) otherwise -1 if key is not found.
      */
     public int depth(Key key) {
-        try {
-            return depth(root, key);
-        } catch (DepthException e) {
-            return -1;
+        int result = 0;
+        Node node = root;
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf == 0) return result;
+            node = cf < 0 ? node.smaller : node.larger;
+            result++;
         }
+        return -1;
+    }
+
+    /**
+     * Constructor for an empty BSTSimple which may operate in scapegoat mode.
+     * <p>
+     * If alpha is less than 1, then, whenever a put creates a leaf deeper than log(size) to the base 1/alpha,
+     * the lowest ancestor of that leaf which is not alpha-weight-balanced (i.e. one of whose subtrees has a count
+     * greater than alpha times its own count) is rebuilt into a perfectly balanced subtree.
+     * And whenever a deletion reduces the size below alpha times the maximum size since the last full rebuild,
+     * the whole tree is rebuilt. This bounds the depth of the tree to O(log N), at an amortized cost of O(log N)
+     * per operation. Smaller values of alpha give shallower trees but more frequent rebuilding.
+     *
+     * @param random the source of randomness used by deleteRandom (for reproducible experiments).
+     * @param alpha  the balance factor, between 0.5 and 1 (1 means never rebuild).
+     */
+    public BSTSimple(Random random, double alpha) {
+        this(random, alpha, 0);
+    }
+
+    /**
+     * Constructor for an empty BSTSimple which may operate in scapegoat mode and which may recycle its nodes.
+     * <p>
+     * If poolCapacity is positive, then each node unlinked by a deletion is cleared (so that it no longer refers to its
+     * key, its value or any other node) and kept on a free list, of at most poolCapacity nodes,
+     * from which subsequent insertions take their nodes. Thus a steady cycle of puts and deletes allocates nothing.
+     *
+     * @param random       the source of randomness used by deleteRandom (for reproducible experiments).
+     * @param alpha        the balance factor, between 0.5 and 1 (1 means never rebuild).
+     * @param poolCapacity the maximum number of deleted nodes to keep for reuse (0 means no pooling).
+     */
+    public BSTSimple(Random random, double alpha, int poolCapacity) {
+        this(random, alpha, poolCapacity, BSTHelper.NONE);
+    }
+
+    /**
+     * Constructor for an empty BSTSimple which reports the work done by each get, put and delete to helper.
+     * Unless the helper is instrumented, it is never called.
+     *
+     * @param random       the source of randomness used by deleteRandom (for reproducible experiments).
+     * @param alpha        the balance factor, between 0.5 and 1 (1 means never rebuild).
+     * @param poolCapacity the maximum number of deleted nodes to keep for reuse (0 means no pooling).
+     * @param helper       the helper (BSTHelper.NONE for no instrumentation): see BSTHelper.create.
+     */
+    public BSTSimple(Random random, double alpha, int poolCapacity, BSTHelper helper) {
+        if (alpha < 0.5 || alpha > 1) throw new IllegalArgumentException("BSTSimple: alpha must be between 0.5 and 1: " + alpha);
+        if (poolCapacity < 0) throw new IllegalArgumentException("BSTSimple: poolCapacity must not be negative: " + poolCapacity);
+        this.random = random;
+        this.alpha = alpha;
+        this.poolCapacity = poolCapacity;
+        this.helper = helper;
+        this.instrumented = helper.instrumented();
+    }
+
+    /**
+     * Constructor for an empty BSTSimple.
+     *
+     * @param random the source of randomness used by deleteRandom (for reproducible experiments).
+     */
+    public BSTSimple(Random random) {
+        this(random, 1.0);
     }
 
     public BSTSimple() {
+        this(new Random());
     }
 
     public BSTSimple(Map<Key, Value> map) {
@@ -96,199 +600,750 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
 
     Node root = null;
 
+    // Used by deleteRandom to choose between successor and predecessor.
+    private final Random random;
+
+    // The scapegoat balance factor (1 means that the tree is never rebuilt).
+    private final double alpha;
+
+    // The maximum size of this tree since it was last completely rebuilt (used only in scapegoat mode).
+    private int maxSize = 0;
+
+    // The maximum number of nodes which may be kept in the pool (0 means that deleted nodes are left to the GC).
+    private final int poolCapacity;
+
+    // The head of the pool of deleted (and cleared) nodes, chained through smaller; and its length.
+    private Node pool = null;
+    private int poolSize = 0;
+
+    // The helper to which the work done by each operation is reported, but only if instrumented is true.
+    private final BSTHelper helper;
+    private final boolean instrumented;
+
+    // Statistics on the rebuilding done in scapegoat mode.
+    private int rebuilds = 0;
+    private long rebuiltNodes = 0;
+
+    // The sum of the depths of the nodes (the internal path length), the root being at depth 0.
+    // This is kept up to date by put and delete unless profiled is false, in which case it is recomputed when next required.
+    // Until it is first required, it is not maintained at all.
+    private long pathLength = 0;
+    private boolean profiled = false;
+
+    // The Bloom filter used by contains (null unless bloomBitsPerKey is positive), its bits per key, and the number of
+    // deletions since it was built (when these amount to a quarter of its keys, it is rebuilt).
+    private BloomFilter bloom = null;
+    private int bloomBitsPerKey = 0;
+    private int bloomDeletions = 0;
+
+    // The stack (of nodes and their levels relative to the top of the subtree) used to walk a subtree.
+    @SuppressWarnings("unchecked")
+    private Node[] scan = (Node[]) new BSTSimple.Node[32];
+    private int[] scanLevels = new int[32];
+
+    /**
+     * The nodes visited (from the root downwards) by the current put or delete.
+     * Grown as necessary and reused between operations so that walking a path does not allocate.
+     */
+    @SuppressWarnings("unchecked")
+    private Node[] path = (Node[]) new BSTSimple.Node[32];
+
+    /**
+     * Method to record node at index n of path, growing path if necessary.
+     *
+     * @param n    the number of nodes already on the path.
+     * @param node the node to record.
+     * @return the new number of nodes on the path.
+     */
+    private int push(int n, Node node) {
+        if (n == path.length) path = Arrays.copyOf(path, n * 2);
+        path[n] = node;
+        return n + 1;
+    }
+
+    /**
+     * Method to find the node for key, or else to add a new leaf node for key/value.
+     * If a leaf is added, the count of each of its ancestors is incremented and their heights are brought up to date.
+     * Nothing is allocated other than the new Node itself.
+     *
+     * @param key   the key to insert.
+     * @param value the value for a new node.
+     * @return the existing node for key (whose value has NOT been updated), or null if a new node was added.
+     */
+    private Node putNode(Key key, Value value) {
+        if (root == null) {
+            root = newNode(key, value);
+            if (bloom != null) addToBloomFilter(key);
+            if (instrumented) helper.put(0, 0);
+            return null;
+        }
+        int n = 0;
+        Node node = root;
+        while (true) {
+            int cf = key.compareTo(node.key);
+            if (cf == 0) {
+                if (instrumented) helper.put(n + 1, 0);
+                return node;
+            }
+            n = push(n, node);
+            Node next = cf < 0 ? node.smaller : node.larger;
+            if (next == null) {
+                if (cf < 0) node.smaller = newNode(key, value);
+                else node.larger = newNode(key, value);
+                for (int i = 0; i < n; i++) path[i].count++;
+                fixHeights(n);
+                if (profiled) pathLength += n;
+                if (bloom != null) addToBloomFilter(key);
+                if (instrumented) helper.put(n, n);
+                if (alpha < 1) afterInsert(n);
+                return null;
+            }
+            node = next;
+        }
+    }
+
     private Value get(Node node, Key key) {
         Node result = getNode(node, key);
         return result != null ? result.value : null;
     }
 
+    /**
+     * Method to count the nodes visited by get(key), i.e. the number of key comparisons it makes.
+     * This is only called when instrumented.
+     */
+    private int visits(Key key) {
+        int result = 0;
+        Node node = root;
+        while (node != null) {
+            result++;
+            int cf = key.compareTo(node.key);
+            if (cf < 0) node = node.smaller;
+            else if (cf > 0) node = node.larger;
+            else break;
+        }
+        return result;
+    }
+
     private Node getNode(Node node, Key key) {
-        if (node == null) return null;
-        int cf = key.compareTo(node.key);
-        if (cf < 0) return getNode(node.smaller, key);
-        else if (cf > 0) return getNode(node.larger, key);
-        else return node;
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf < 0) node = node.smaller;
+            else if (cf > 0) node = node.larger;
+            else return node;
+        }
+        return null;
     }
 
     /**
-     * Method to put the key/value pair into the subtree whose root is node.
+     * Method to delete key from this BST.
+     * The ancestors of the deleted node are recorded in path and each has its count decremented once the node has been
+     * unlinked. If the deleted node had two children, its replacement, followed by the nodes between the replacement's
+     * old position and the deleted node, are also recorded in path so that all of the heights which may have changed
+     * can be fixed, from the bottom up. If key is not present, the tree is unchanged.
      *
-     * @param node  the root of a subtree
-     * @param key   the key to insert
-     * @param value the value to associate with the key
-     * @return a tuple of Node and Value: Node is the
+     * @param key       the key to delete.
+     * @param successor if true, a node with two children is replaced by its successor, otherwise by its predecessor.
      */
-    private NodeValue put(Node node, Key key, Value value) {
-        // If node is null, then we return the newly constructed Node, and value=null
-        if (node == null) return new NodeValue(new Node(key, value, 0), null);
-        int cf = key.compareTo(node.key);
-        if (cf == 0) {
-            // If keys match, then we return the node and its value
-            NodeValue result = new NodeValue(node, node.value);
-            node.value = value;
-            return result;
-        } else if (cf < 0) {
-            // if key is less than node's key, we recursively invoke put in the smaller subtree
-            NodeValue result = put(node.smaller, key, value);
-            if (node.smaller == null)
-                node.smaller = result.node;
-            if (result.value == null)
-                result.node.count++;
-            return result;
+    private void delete(Key key, boolean successor) {
+        int n = 0;
+        Node x = root;
+        while (x != null) {
+            int cf = key.compareTo(x.key);
+            if (cf == 0) break;
+            n = push(n, x);
+            x = cf < 0 ? x.smaller : x.larger;
+        }
+        if (x == null) {
+            if (instrumented) helper.delete(n, 0, 0);
+            return;
+        }
+        // m is the number of ancestors of x.
+        int m = n;
+        Node replacement;
+        if (x.larger == null || x.smaller == null) {
+            replacement = x.larger == null ? x.smaller : x.larger;
+            if (profiled) lift(m, replacement);
         } else {
-            // if key is greater than node's key, we recursively invoke put in the larger subtree
-            NodeValue result = put(node.larger, key, value);
-            if (node.larger == null)
-                node.larger = result.node;
-            if (result.value == null)
-                result.node.count++;
-            return result;
+            n = successor ? promoteSuccessor(x, m) : promotePredecessor(x, m);
+            replacement = path[m];
+            if (profiled) {
+                // The replacement has moved up from depth n (where it is replaced by its only child) to take the place of x.
+                // That child is now linked to the replacement's old parent, unless that parent was x itself.
+                if (n - 1 > m) lift(n, successor ? path[n - 1].smaller : path[n - 1].larger);
+                else lift(n, successor ? replacement.larger : replacement.smaller);
+            }
         }
+        link(m > 0 ? path[m - 1] : null, x, replacement);
+        for (int i = 0; i < m; i++) path[i].count--;
+        fixHeights(n);
+        recycle(x);
+        if (bloom != null) deletedFromBloomFilter();
+        // The successor (or predecessor) search visited the n - m nodes now at path[m..n), each of whose counts was set,
+        // as were those of the m ancestors of x.
+        if (instrumented) helper.delete(m + 1, n - m, n);
+        if (alpha < 1) afterDelete();
     }
 
-    private Node delete(Node x, Key key) {
-    	if (x == null) return null;
-    	int cmp = key.compareTo(x.key);
-    	
-    	if (cmp < 0) x.smaller = delete(x.smaller, key);
-    	else if (cmp > 0) x.larger = delete(x.larger, key);
-    	
-    	else { 
-    	  if (x.larger == null) return x.smaller;
-    	  if (x.smaller == null) return x.larger;
-    	  Node t = x;
-    	  x = min(t.larger);
-    	  x.larger = deleteMin(t.larger);
-    	  x.smaller = t.smaller;
-    	} 
-    	x.count = size(x.smaller) + size(x.larger) + 1;
-    	return x;
-    }
-    
-    private Node deleteRandom(Node x, Key key) {
-    	int tt = (int)Math.random()>0.5?0:1;
-    	//new Random().nextInt(2);//0 OR 1
-    	
-    	
-    	if (x == null) return null;
-    	int cmp = key.compareTo(x.key);
-    	
-    	if (cmp < 0) x.smaller = deleteRandom(x.smaller, key);
-    	else if (cmp > 0) x.larger = deleteRandom(x.larger, key);
-    	
-    	else { 
-    	  if (x.larger == null) return x.smaller;
-    	  if (x.smaller == null) return x.larger;
-    	  
-    	  if(tt==1) {
-    		  Node t = x;
-        	  x = min(t.larger);
-        	  x.larger = deleteMin(t.larger);
-        	  x.smaller = t.smaller;
-    	  }
-    	  if(tt==0)  {
-    		  Node t = x;
-        	  x = max(t.smaller);
-        	  x.smaller = deleteMax(t.smaller);
-        	  x.larger = t.larger;
-    	  }
-    	  
-    	} 
-    	x.count = size(x.smaller) + size(x.larger) + 1;
-    	return x;
-    }
-
-    private Node deleteMin(Node x) {
-        if (x.smaller == null) return x.larger;
-        x.smaller = deleteMin(x.smaller);
-        x.count = 1 + size(x.smaller) + size(x.larger);
-        return x;
+    /**
+     * Method to detach the successor of x (which must have two children) and give it x's children.
+     * This is done in a single pass down the smaller links of x.larger, decrementing the count of each node passed.
+     * The successor is recorded in path[m] and the nodes passed on the way down to it are recorded after it.
+     *
+     * @param x a node with two children.
+     * @param m the index in path at which to record the successor.
+     * @return the new length of path.
+     */
+    private int promoteSuccessor(Node x, int m) {
+        int n = push(m, x);
+        Node parent = null;
+        Node t = x.larger;
+        while (t.smaller != null) {
+            t.count--;
+            n = push(n, t);
+            parent = t;
+            t = t.smaller;
+        }
+        if (parent != null) {
+            parent.smaller = t.larger;
+            t.larger = x.larger;
+        }
+        t.smaller = x.smaller;
+        t.count = x.count - 1;
+        path[m] = t;
+        return n;
     }
-    
-    private Node deleteMax(Node x) {
-        if (x.larger == null) return x.smaller;
-        x.larger = deleteMax(x.larger);
-        x.count = 1 + size(x.larger) + size(x.smaller);
-        return x;
+
+    /**
+     * Method to detach the predecessor of x (which must have two children) and give it x's children.
+     * This is the mirror image of promoteSuccessor.
+     *
+     * @param x a node with two children.
+     * @param m the index in path at which to record the predecessor.
+     * @return the new length of path.
+     */
+    private int promotePredecessor(Node x, int m) {
+        int n = push(m, x);
+        Node parent = null;
+        Node t = x.smaller;
+        while (t.larger != null) {
+            t.count--;
+            n = push(n, t);
+            parent = t;
+            t = t.larger;
+        }
+        if (parent != null) {
+            parent.larger = t.smaller;
+            t.smaller = x.smaller;
+        }
+        t.larger = x.larger;
+        t.count = x.count - 1;
+        path[m] = t;
+        return n;
     }
 
     private int size(Node x) {
         return x == null ? 0 : x.count;
     }
 
-    private Node min(Node x) {
-        if (x == null) throw new RuntimeException("min not implemented for null");
-        else if (x.smaller == null) return x;
-        else return min(x.smaller);
+    /**
+     * Method to restore the scapegoat depth bound after a put has added a leaf below the n nodes of path.
+     *
+     * @param n the depth of the new leaf (i.e. the number of its ancestors).
+     */
+    private void afterInsert(int n) {
+        int size = size();
+        if (size > maxSize) maxSize = size;
+        if (n <= Math.log(size) / Math.log(1 / alpha)) return;
+        // The new leaf is too deep, so at least one of its ancestors must be alpha-weight-unbalanced: find the lowest.
+        for (int i = n - 1; i >= 0; i--) {
+            Node node = path[i];
+            if (Math.max(size(node.smaller), size(node.larger)) > alpha * node.count) {
+                // The rebuilt subtree has the same nodes at the same depth, so only its own path length changes.
+                if (profiled) pathLength -= internalPathLength(node);
+                Node rebuilt = rebuild(node);
+                link(i > 0 ? path[i - 1] : null, node, rebuilt);
+                fixHeights(i);
+                if (profiled) pathLength += internalPathLength(rebuilt);
+                return;
+            }
+        }
     }
-    
-    private Node max(Node x) {
-        if (x == null) throw new RuntimeException("max not implemented for null");
-        else if (x.larger == null) return x;
-        else return min(x.larger);
+
+    /**
+     * Method to rebuild the whole tree if a deletion has made it sufficiently smaller than it has been.
+     */
+    private void afterDelete() {
+        if (size() < alpha * maxSize) {
+            if (root != null) root = rebuild(root);
+            maxSize = size();
+            profiled = false;
+        }
     }
-    
-   
 
+    /**
+     * Method to rebuild the subtree rooted at node into perfectly balanced form, in linear time.
+     *
+     * @param node the root of the subtree to be rebuilt.
+     * @return the root of the rebuilt subtree (which has the same count as node).
+     */
+    private Node rebuild(Node node) {
+        int n = node.count;
+        @SuppressWarnings("unchecked") Node[] nodes = (Node[]) new BSTSimple.Node[n];
+        NodeIterator iterator = new NodeIterator(node, null, null);
+        for (int i = 0; i < n; i++) nodes[i] = iterator.next();
+        rebuilds++;
+        rebuiltNodes += n;
+        return build(nodes, 0, n);
+    }
 
     /**
-     * Do a generic traverse of the binary tree starting with node
+     * Method to link the (ordered) nodes from thru to-1 into a perfectly balanced subtree, setting their counts and heights.
+     * The recursion is only as deep as the resulting subtree, i.e. lg(to-from).
      *
-     * @param q    determines when the function f is invoked ( lt 0: pre, ==0: in, gt 0: post)
-     * @param node the node
-     * @param f    the function to be invoked
+     * @param nodes the nodes, in key order.
+     * @param from  the index of the first node.
+     * @param to    the index after the last node.
+     * @return the root of the subtree (or null if from=to).
      */
-    private void doTraverse(int q, Node node, BiFunction<Key, Value, Void> f) {
-        if (node == null) return;
-        if (q < 0) f.apply(node.key, node.value);
-        doTraverse(q, node.smaller, f);
-        if (q == 0) f.apply(node.key, node.value);
-        doTraverse(q, node.larger, f);
-        if (q > 0) f.apply(node.key, node.value);
+    private Node build(Node[] nodes, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        Node node = nodes[mid];
+        node.smaller = build(nodes, from, mid);
+        node.larger = build(nodes, mid + 1, to);
+        node.count = to - from;
+        node.height = 1 + Math.max(height(node.smaller), height(node.larger));
+        return node;
+    }
+
+    /**
+     * @return the number of subtrees (including the whole tree) rebuilt in scapegoat mode.
+     */
+    public int getRebuilds() {
+        return rebuilds;
+    }
+
+    /**
+     * @return the total number of nodes involved in scapegoat rebuilds (a measure of their cost).
+     */
+    public long getRebuiltNodes() {
+        return rebuiltNodes;
+    }
+
+    /**
+     * Method to unlink the node with the smallest key from this (non-empty) BST,
+     * decrementing the counts and fixing the heights of its ancestors.
+     *
+     * @return the detached node.
+     */
+    private Node detachMin() {
+        int n = 0;
+        Node x = root;
+        while (x.smaller != null) {
+            x.count--;
+            n = push(n, x);
+            x = x.smaller;
+        }
+        link(n > 0 ? path[n - 1] : null, x, x.larger);
+        fixHeights(n);
+        if (profiled) lift(n, x.larger);
+        return x;
+    }
+
+    /**
+     * Method to unlink the node with the largest key from this (non-empty) BST.
+     * This is the mirror image of detachMin.
+     *
+     * @return the detached node.
+     */
+    private Node detachMax() {
+        int n = 0;
+        Node x = root;
+        while (x.larger != null) {
+            x.count--;
+            n = push(n, x);
+            x = x.larger;
+        }
+        link(n > 0 ? path[n - 1] : null, x, x.smaller);
+        fixHeights(n);
+        if (profiled) lift(n, x.smaller);
+        return x;
+    }
+
+    private Node minNode() {
+        Node x = root;
+        while (x.smaller != null) x = x.smaller;
+        return x;
+    }
+
+    private Node maxNode() {
+        Node x = root;
+        while (x.larger != null) x = x.larger;
+        return x;
+    }
+
+    /**
+     * Method to replace child (of parent) by replacement.
+     *
+     * @param parent      the parent of child, or null if child is the root.
+     * @param child       the node to be replaced.
+     * @param replacement the node to take its place (may be null).
+     */
+    private void link(Node parent, Node child, Node replacement) {
+        if (parent == null) root = replacement;
+        else if (parent.smaller == child) parent.smaller = replacement;
+        else parent.larger = replacement;
+    }
+
+    /**
+     * Method to recompute the heights of the first n nodes of path, from the bottom up.
+     *
+     * @param n the number of nodes on the path.
+     */
+    private void fixHeights(int n) {
+        for (int i = n - 1; i >= 0; i--) {
+            Node node = path[i];
+            node.height = 1 + Math.max(height(node.smaller), height(node.larger));
+        }
+    }
+
+    private int height(Node x) {
+        return x == null ? 0 : x.height;
+    }
+
+    /**
+     * Method to update the path length when the node at the given depth has been unlinked
+     * (or has moved up to take the place of a deleted node) and child has taken its place.
+     * Every node in the subtree of child moves up by one level, so its count is all that is needed.
+     *
+     * @param depth the depth of the node which has been unlinked.
+     * @param child the root of the subtree which has moved up to the given depth (may be null).
+     */
+    private void lift(int depth, Node child) {
+        pathLength -= depth + size(child);
+    }
+
+    /**
+     * Method to compute the internal path length of the subtree rooted at top (relative to top).
+     * Since the depth of each node below top is the number of its ancestors in the subtree, this is the sum of the
+     * counts of the nodes of the subtree, less that of top itself. The subtree is walked iteratively, using scan.
+     *
+     * @param top the root of a subtree (may be null).
+     * @return the sum of the depths of its nodes, top being at depth 0.
+     */
+    private long internalPathLength(Node top) {
+        if (top == null) return 0;
+        long result = -top.count;
+        int n = 0;
+        scan[n++] = top;
+        while (n > 0) {
+            Node node = scan[--n];
+            result += node.count;
+            if (n + 2 > scan.length) scan = Arrays.copyOf(scan, scan.length * 2);
+            if (node.smaller != null) scan[n++] = node.smaller;
+            if (node.larger != null) scan[n++] = node.larger;
+        }
+        return result;
+    }
+
+    /**
+     * Method to recompute the path length of the whole tree.
+     */
+    private void profile() {
+        pathLength = internalPathLength(root);
+        profiled = true;
+    }
+
+    private void addToBloomFilter(Key key) {
+        bloom.add(key.hashCode());
+        if (bloom.getKeys() > bloom.getCapacity()) rebuildBloomFilter();
+    }
+
+    private void deletedFromBloomFilter() {
+        if (++bloomDeletions > bloom.getKeys() / 4) rebuildBloomFilter();
+    }
+
+    /**
+     * Method to build a new Bloom filter, sized for twice the current size of the tree, from its keys.
+     */
+    private void rebuildBloomFilter() {
+        bloom = new BloomFilter(Math.max(2 * size(), MIN_BLOOM_CAPACITY), bloomBitsPerKey);
+        NodeIterator nodes = new NodeIterator(root, null, null);
+        while (nodes.hasNext()) bloom.add(nodes.next().key.hashCode());
+        bloomDeletions = 0;
+    }
+
+    /**
+     * Method to rebuild the Bloom filter (if there is one) after an operation which has reshaped the whole tree.
+     */
+    private void refreshBloomFilter() {
+        if (bloomBitsPerKey > 0) rebuildBloomFilter();
+    }
+
+    /**
+     * Method to compute the heights of every node in the subtree rooted at node, which was not built by put.
+     * Since this is only used for trees constructed by hand, it is recursive.
+     *
+     * @param node the root of a subtree.
+     * @return the height of node.
+     */
+    private int computeHeights(Node node) {
+        if (node == null) return 0;
+        node.height = 1 + Math.max(computeHeights(node.smaller), computeHeights(node.larger));
+        return node.height;
     }
 
     /**
      * Yield the total depth of this BST. If root is null, then depth will be 0.
+     * Since each node maintains its height, this takes constant time.
      *
      * @return the total number of levels in this BST.
      */
+    @Override
     public int depth() {
-        return depth(root);
+        return height(root);
     }
 
-    private int depth(Node node) {
-        if (node == null) return 0;
-        int depthS = depth(node.smaller);
-        int depthL = depth(node.larger);
-        return 1 + Math.max(depthL, depthS);
+    /**
+     * Method to yield the internal path length of this BST, i.e. the sum of the depths of its nodes (the root being at
+     * depth 0, as for depth(Key)).
+     * <p>
+     * The path length is updated by each put and delete as it goes, in constant time: an inserted leaf adds its depth;
+     * a deleted node (or, with two children, its replacement) subtracts its depth, and the subtree which takes its place
+     * moves up by one level, subtracting its count. A scapegoat rebuild of a subtree is accounted for by summing the
+     * counts of the subtree before and after (which at most doubles the cost of the rebuild). Following an operation
+     * which reshapes the whole tree (putAllSorted, split, join or a complete scapegoat rebuild), the path length is
+     * recomputed (in O(N) time) only when next required. Likewise, it is not maintained at all until it is first
+     * required (by this method or averageDepth), so that a BST which is never asked for it pays nothing.
+     *
+     * @return the internal path length.
+     */
+    public long pathLength() {
+        if (!profiled) profile();
+        return pathLength;
     }
-    
-    
 
-    private class NodeValue {
-        private final Node node;
-        private final Value value;
+    /**
+     * @return the average depth of the nodes of this BST (the root being at depth 0), or 0 if it is empty.
+     */
+    public double averageDepth() {
+        int size = size();
+        return size > 0 ? (double) pathLength() / size : 0;
+    }
 
-        NodeValue(Node node, Value value) {
-            this.node = node;
-            this.value = value;
+    /**
+     * Method to yield the number of nodes at each depth of this BST.
+     * Unlike pathLength, the histogram is not maintained by put and delete, but is computed on demand by walking the
+     * whole tree, which takes O(N) time. When a delete lifts a subtree, every node in it changes depth, so keeping the
+     * histogram in O(1) would require each node to carry the depth counts of its own subtree: that takes memory
+     * proportional to the sum of the subtree heights, which is quadratic for the degenerate trees that this class is
+     * designed to survive. For tracking the shape of the tree after every operation, use averageDepth (or pathLength),
+     * which take constant time, and depth().
+     *
+     * @return an array of length depth() whose element d is the number of nodes at depth d.
+     */
+    public int[] depthHistogram() {
+        int[] result = new int[depth()];
+        if (root == null) return result;
+        int n = 0;
+        scan[n] = root;
+        scanLevels[n++] = 0;
+        while (n > 0) {
+            Node node = scan[--n];
+            int level = scanLevels[n];
+            result[level]++;
+            if (n + 2 > scan.length) {
+                scan = Arrays.copyOf(scan, scan.length * 2);
+                scanLevels = Arrays.copyOf(scanLevels, scan.length);
+            }
+            if (node.smaller != null) {
+                scan[n] = node.smaller;
+                scanLevels[n++] = level + 1;
+            }
+            if (node.larger != null) {
+                scan[n] = node.larger;
+                scanLevels[n++] = level + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lazy in-order iterator over the nodes of the subtree rooted at top, optionally restricted to the range lo thru hi.
+     * The stack holds the nodes (each with key at least lo) whose keys, and larger subtrees, have yet to be visited.
+     */
+    private class NodeIterator implements Iterator<Node> {
+        /**
+         * @param top the root of the subtree to be traversed.
+         * @param lo  the lower bound (inclusive), or null for no lower bound.
+         * @param hi  the upper bound (inclusive), or null for no upper bound.
+         */
+        NodeIterator(Node top, Key lo, Key hi) {
+            this.hi = hi;
+            Node node = top;
+            while (node != null) {
+                if (lo == null || lo.compareTo(node.key) <= 0) {
+                    stack.push(node);
+                    node = node.smaller;
+                } else node = node.larger;
+            }
         }
 
         @Override
-        public String toString() {
-            return node + "<->" + value;
+        public boolean hasNext() {
+            return !stack.isEmpty() && (hi == null || stack.peek().key.compareTo(hi) <= 0);
+        }
+
+        @Override
+        public Node next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node result = stack.pop();
+            for (Node node = result.larger; node != null; node = node.smaller) stack.push(node);
+            return result;
+        }
+
+        private final Key hi;
+        private final Deque<Node> stack = new ArrayDeque<>();
+    }
+
+    private class KeyIterator implements Iterator<Key> {
+        KeyIterator(NodeIterator nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nodes.hasNext();
+        }
+
+        @Override
+        public Key next() {
+            return nodes.next().key;
+        }
+
+        private final NodeIterator nodes;
+    }
+
+    /**
+     * Spliterator which covers the node first (if not null) followed by all the nodes of the subtree rooted at subtree.
+     * Before traversal begins, it can be split into a prefix covering first and subtree.smaller, while it retains
+     * subtree itself followed by subtree.larger. Since every key in subtree is greater than first, order is preserved.
+     */
+    private class EntrySpliterator implements Spliterator<Map.Entry<Key, Value>> {
+        EntrySpliterator(Node first, Node subtree) {
+            this.first = first;
+            this.subtree = subtree;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<Key, Value>> action) {
+            if (nodes == null) {
+                nodes = new NodeIterator(subtree, null, null);
+                if (first != null) {
+                    consumed++;
+                    action.accept(new AbstractMap.SimpleImmutableEntry<>(first.key, first.value));
+                    return true;
+                }
+            }
+            if (!nodes.hasNext()) return false;
+            Node node = nodes.next();
+            consumed++;
+            action.accept(new AbstractMap.SimpleImmutableEntry<>(node.key, node.value));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Map.Entry<Key, Value>> trySplit() {
+            if (nodes != null || subtree == null) return null;
+            EntrySpliterator prefix;
+            if (first == null && subtree.smaller == null) {
+                prefix = new EntrySpliterator(subtree, null);
+                first = null;
+            } else {
+                prefix = new EntrySpliterator(first, subtree.smaller);
+                first = subtree;
+            }
+            subtree = subtree.larger;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return (first != null ? 1 : 0) + size(subtree) - consumed;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL;
+        }
+
+        private Node first;
+        private Node subtree;
+        // Set when traversal begins, after which no further splitting is possible.
+        private NodeIterator nodes = null;
+        private long consumed = 0;
+    }
+
+    /**
+     * Task which applies operation to the items from thru to-1 (which are in key order) of a batch update on tree.
+     * If there are too many items to be applied sequentially, tree is split at the key of the middle item,
+     * the two halves of the batch are applied (one of them by a forked task) and the two trees are joined again.
+     * Since the two trees share no nodes, they need no locking; they do share the helper, however, which is why
+     * InstrumentedBSTHelper is synchronized.
+     *
+     * @param <T> the type of the items.
+     */
+    private class BatchTask<T> extends RecursiveAction {
+        BatchTask(BSTSimple<Key, Value> tree, List<T> items, int from, int to, Function<T, Key> keyFunction, BiConsumer<BSTSimple<Key, Value>, T> operation) {
+            this.tree = tree;
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.keyFunction = keyFunction;
+            this.operation = operation;
         }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_THRESHOLD) {
+                for (int i = from; i < to; i++) operation.accept(tree, items.get(i));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            BSTSimple<Key, Value> upper = tree.split(keyFunction.apply(items.get(mid)));
+            BatchTask<T> larger = new BatchTask<>(upper, items, mid, to, keyFunction, operation);
+            larger.fork();
+            new BatchTask<>(tree, items, from, mid, keyFunction, operation).compute();
+            larger.join();
+            BSTSimple.join(tree, upper);
+        }
+
+        private final BSTSimple<Key, Value> tree;
+        private final List<T> items;
+        private final int from;
+        private final int to;
+        private final Function<T, Key> keyFunction;
+        private final BiConsumer<BSTSimple<Key, Value>, T> operation;
     }
 
+    // The largest batch which a BatchTask applies sequentially.
+    private static final int BATCH_THRESHOLD = 1 << 10;
+
+    // The smallest number of keys for which a Bloom filter is sized.
+    private static final int MIN_BLOOM_CAPACITY = 1 << 10;
+
     class Node {
-        Node(Key key, Value value, int depth) {
+        Node(Key key, Value value, int height) {
             this.key = key;
             this.value = value;
-            this.depth = depth;
+            this.height = height;
         }
 
-        final Key key;
+        // Not final, so that a deleted node can be reused (see recycle).
+        Key key;
         Value value;
-        final int depth;
+        // The number of levels in the subtree rooted at this node (1 for a leaf).
+        int height;
         Node smaller = null;
         Node larger = null;
         int count = 0;
@@ -303,8 +1358,62 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
 
     }
 
-    private  Node makeNode(Key key, Value value, int depth) {
-        return new Node(key, value, depth);
+    // makeNode, getRoot and setRoot are also invoked (via PrivateMethodTester) by BSTTest, to build trees by hand.
+    private Node makeNode(Key key, Value value, int height) {
+        return new Node(key, value, height);
+    }
+
+    /**
+     * Method to make a new leaf node, whose count and height are 1, taking it from the pool if possible.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return a new Node.
+     */
+    private Node newNode(Key key, Value value) {
+        Node result;
+        if (pool != null) {
+            result = pool;
+            pool = result.smaller;
+            poolSize--;
+            result.key = key;
+            result.value = value;
+            result.smaller = null;
+            result.height = 1;
+        } else result = makeNode(key, value, 1);
+        result.count = 1;
+        return result;
+    }
+
+    /**
+     * Method to return an unlinked node to the pool, if there is room for it, having first cleared it.
+     *
+     * @param node a node which is no longer part of this BST.
+     */
+    private void recycle(Node node) {
+        if (poolSize == poolCapacity) return;
+        node.key = null;
+        node.value = null;
+        node.larger = null;
+        node.count = 0;
+        node.height = 0;
+        node.smaller = pool;
+        pool = node;
+        poolSize++;
+    }
+
+    /**
+     * @return the number of deleted nodes currently held for reuse.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @return the helper to which the work done by each operation is reported.
+     */
+    public BSTHelper getHelper() {
+        return helper;
     }
 
     private Node getRoot() {
@@ -317,6 +1426,9 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
             root.count++;
         } else
             root = node;
+        computeHeights(root);
+        profiled = false;
+        refreshBloomFilter();
     }
 
     private void show(Node node, StringBuffer sb, int indent) {
@@ -344,101 +1456,37 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
         return sb.toString();
     }
 
-    private int depth(Node node, Key key) throws DepthException {
-        if (node == null) throw new DepthException();
-        int cf = key.compareTo(node.key);
-        if (cf < 0) return 1 + depth(node.smaller, key);
-        else if (cf > 0) return 1 + depth(node.larger, key);
-        else return 0;
+    /**
+     * Main program to run the deletion experiment: N random insertions mixed with N/2 random deletions, for N from 512
+     * thru 2^20, recording the mean maximum depth over 50 trials.
+     * Each sweep runs the same experiment (with the same seeds, so that the results are directly comparable) on a
+     * different subject: BSTSimple with Hibbard deletion and with random deletion (the original comparison), and then
+     * the variants which were added so that they could be compared with it on the same workload: pooled nodes,
+     * scapegoat mode at three values of alpha, a red-black tree, a treap and the primitive IntIntBST.
+     *
+     * @param args the master seed (optional: by default, System.nanoTime()).
+     */
+    public static void main(String[] args) {
+        final int trials = 50;
+        final long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+        System.out.println("Master seed: " + seed + ", parallelism: " + ForkJoinPool.getCommonPoolParallelism());
+        runSweep("Delete use Hibbard:", DeletionExperiment.of(BSTSimple::new, BstDetail::delete), trials, seed);
+        runSweep("Delete use Random Selection:", DeletionExperiment.of(BSTSimple::new, BstDetail::deleteRandom), trials, seed);
+        runSweep("Delete use Hibbard (pooled nodes):", DeletionExperiment.of(random -> new BSTSimple<>(random, 1.0, 1024), BstDetail::delete), trials, seed);
+        for (double alpha : new double[]{0.6, 0.75, 0.9})
+            runSweep("Delete use Hibbard (scapegoat mode, alpha=" + alpha + "):", DeletionExperiment.of(random -> new BSTSimple<>(random, alpha), BstDetail::delete), trials, seed);
+        runSweep("Delete use Red-Black (left-leaning):", DeletionExperiment.of(random -> new RedBlackBST<>(), BstDetail::delete), trials, seed);
+        runSweep("Delete use Treap:", DeletionExperiment.of(Treap::new, BstDetail::delete), trials, seed);
+        runSweep("Delete use Hibbard (IntIntBST):", DeletionExperiment.ofIntInt(true), trials, seed);
+        runSweep("Delete use Random Selection (IntIntBST):", DeletionExperiment.ofIntInt(false), trials, seed);
     }
 
-    private static class DepthException extends Exception {
-        public DepthException() {
-        }
-    }
-    
-    public static void main(String[] args) {
-    	//mix 1024 key additions randomly with 512 deletions
-    	
- //delete Hibbard
-    	System.out.println("Delete use Hibbard:"); 
-    	
- //512I+256D，1024I+512D	each trail conduct 50 times, calculate average of max depth
-    	for(int it=512;it<=Math.pow(2,20);it*=2) {
-    		int dt = it/2;
-    		int sumDepth = 0;
-    		int sumN = 0;
-    		
-    		for(int tim=0;tim<50;tim++) {
-    	    
-    	    BSTSimple<Integer, Integer> bst = new BSTSimple<>();
-    	    bst.put(500,100); //root ,N=1    
-    	    int i=0;
-    	    int j=0;
-            while(i<it || j<dt) {
-            	int tt = new Random().nextInt(2);//0 OR 1
-            	
-            	int keyy  = new Random().nextInt(it)+1;
-            	int valuee  = new Random().nextInt(it)+1;
-            	if(tt==1 && i<it) {
-            		bst.put(keyy,valuee);
-            		i++;
-            	}if(tt==0 && j<dt) {
-            		bst.delete(keyy);
-            		j++;
-            	}
-            }
-            sumDepth += bst.depth();
-            sumN += bst.size();
-            //System.out.println( "lgN = "+ String.format("%.2f",Math.log(bst.size())/Math.log(2)));
-    		} 
-    		
-    		System.out.println("N="+String.format("%.2f",(float)sumN/50)+", lgN = "+String.format("%.2f",Math.log(sumN/50)/Math.log(2))+", Mean Max depth: "+ String.format("%.2f",(float)sumDepth/50) );  
-        } 
-    		
-    	    
+    private static void runSweep(String description, Function<Random, DeletionExperiment.Subject> factory, int trials, long seed) {
+        System.out.println(description);
+        long start = System.nanoTime();
+        DeletionExperiment experiment = new DeletionExperiment(factory, trials, seed);
+        for (int n = 512; n <= 1 << 20; n *= 2) System.out.println(experiment.run(n));
+        System.out.println("Elapsed: " + String.format("%.1f", (System.nanoTime() - start) / 1e9) + " secs");
         System.out.println();
-        
-        
-        
-// delete use Arbitrary Substitution Principal
-        System.out.println("Delete use Random Selection:"); 
-        
-        for(int it1=512;it1<=Math.pow(2,20);it1*=2) {
-        	
-        	int dt1 = it1/2;	
-        	int sumDepth1 = 0;
-    		int sumN1 = 0;
-    		
-    		for(int tim1=0;tim1<50;tim1++) {
-    			BSTSimple<Integer, Integer> bst1 = new BSTSimple<>();
-	            bst1.put(500,100); //root ,N=1
-	            int i1=0;
-	            int j1=0;
-                while(i1<it1 || j1<dt1) {
-        	       int tt1 = new Random().nextInt(2);//0 OR 1 
-        	//(int)Math.random()>0.5?0:1;
-        	       int keyy1  = new Random().nextInt(it1)+1;
-        	       int valuee1  = new Random().nextInt(it1)+1;
-        	
-        	//System.out.println("tt:"+tt+", key:"+keyy+" value:"+valuee);
-        	       if(tt1==1 && i1<it1) {
-        		      bst1.put(keyy1,valuee1);
-        		//System.out.println("insert:("+keyy+","+valuee+")!");
-        		      i1++;
-        	       }if(tt1==0 && j1<dt1) {
-        		       bst1.deleteRandom(keyy1);
-        		//System.out.println("delete:("+keyy+")!");
-        		       j1++;
-        	       }
-                }
-                sumDepth1 += bst1.depth();
-                sumN1 += bst1.size();
-           }
-           System.out.println("N="+String.format("%.2f",(float)sumN1/50)+", lgN = "+String.format("%.2f",Math.log(sumN1/50)/Math.log(2))+", Mean Max depth: "+ String.format("%.2f",(float)sumDepth1/50) );  
-       
-        }
     }
-
-	
 }
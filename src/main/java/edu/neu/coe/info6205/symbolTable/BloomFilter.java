@@ -0,0 +1,115 @@
+package edu.neu.coe.info6205.symbolTable;
+
+/**
+ * Blocked Bloom filter over the hash codes of keys.
+ * <p>
+ * The bits are divided into blocks of 512 bits (8 longs, i.e. one 64-byte cache line, or at worst two since the array
+ * itself is not aligned), and all of the probes for a key fall in a single block: so a test costs one or two cache
+ * misses however many probes there are, whereas an ordinary Bloom filter would take one miss per probe.
+ * The price is a slightly higher false-positive rate for the same number of bits.
+ * <p>
+ * The hash code of a key is mixed into 64 bits, of which the high half chooses the block; these are then remixed to
+ * provide the (up to 7) 9-bit offsets of the probes within it. Keys cannot be removed: see BSTSimple.setBloomFilter.
+ * <p>
+ * Only hash codes are seen here, so there are no false negatives only if the hash code of a key is consistent with the
+ * way in which its owner compares keys: in BSTSimple, keys which are equal according to compareTo must have equal hash
+ * codes. A key type whose hashCode is inherited from Object, or which compares fewer (or other) fields than it hashes,
+ * will yield false negatives, i.e. contains will wrongly report present keys as absent.
+ */
+class BloomFilter {
+
+    /**
+     * Constructor for an empty BloomFilter.
+     *
+     * @param capacity   the number of keys for which the filter is sized.
+     * @param bitsPerKey the number of bits per key (10 gives a false-positive rate of about 1% at capacity).
+     */
+    BloomFilter(int capacity, int bitsPerKey) {
+        this.capacity = capacity;
+        long bits = Math.max((long) capacity * bitsPerKey, BLOCK_BITS);
+        blocks = (int) Math.min((bits + BLOCK_BITS - 1) / BLOCK_BITS, Integer.MAX_VALUE / BLOCK_LONGS);
+        words = new long[blocks * BLOCK_LONGS];
+        probes = Math.max(1, Math.min(MAX_PROBES, (int) Math.round(bitsPerKey * Math.log(2))));
+    }
+
+    /**
+     * Method to add a key, given its hash code.
+     */
+    void add(int hashCode) {
+        long z = mix(hashCode);
+        int base = block(z);
+        long p = offsets(z);
+        for (int i = 0; i < probes; i++, p >>>= PROBE_BITS) {
+            int bit = (int) p & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+        keys++;
+    }
+
+    /**
+     * Method to test whether a key may have been added, given its hash code.
+     *
+     * @return false if the key has definitely not been added.
+     */
+    boolean mightContain(int hashCode) {
+        long z = mix(hashCode);
+        int base = block(z);
+        long p = offsets(z);
+        for (int i = 0; i < probes; i++, p >>>= PROBE_BITS) {
+            int bit = (int) p & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & 1L << bit) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of keys added (including any which have since been deleted from the tree).
+     */
+    int getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return the number of keys for which this filter was sized.
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the index of the first word of the block chosen by the high 32 bits of z (by multiplying, not dividing).
+     */
+    private int block(long z) {
+        return (int) (((z >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+    }
+
+    /**
+     * @return the bits of z, remixed (so that all of them affect the low bits), from which to take the offsets of the probes.
+     */
+    private static long offsets(long z) {
+        long p = z * 0xD6E8FEB86659FD93L;
+        return p ^ (p >>> 32);
+    }
+
+    /**
+     * Method to spread the bits of a hash code over a long (this is the finalizer of SplitMix64).
+     */
+    private static long mix(int hashCode) {
+        long z = hashCode * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+    private static final int PROBE_BITS = 9;
+    // The number of 9-bit offsets which can be taken from a long.
+    private static final int MAX_PROBES = 7;
+
+    private final int capacity;
+    private final int blocks;
+    private final long[] words;
+    private final int probes;
+    private int keys = 0;
+}
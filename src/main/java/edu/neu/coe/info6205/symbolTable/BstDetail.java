@@ -20,4 +20,11 @@ public interface BstDetail<Key extends Comparable<Key>, Value> extends BST<Key,
     void deleteMin();
 
 	void deleteMax();
+
+    /**
+     * Yield the total depth of this BST. If it is empty, then depth will be 0.
+     *
+     * @return the total number of levels in this BST.
+     */
+    int depth();
 }
@@ -0,0 +1,52 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.Iterator;
+
+/**
+ * Extension of BstDetail for trees which can answer order-statistic and range queries,
+ * typically in time proportional to the depth of the tree (by using the subtree count of each node).
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public interface BstOrdered<Key extends Comparable<Key>, Value> extends BstDetail<Key, Value> {
+
+    /**
+     * @param key a key (which need not be present).
+     * @return the number of keys in this BST which are less than key.
+     */
+    int rank(Key key);
+
+    /**
+     * @param k the rank of the required key (0 for the smallest).
+     * @return the key whose rank is k.
+     * @throws IllegalArgumentException if k is not in the range 0 thru size()-1.
+     */
+    Key select(int k);
+
+    /**
+     * @param key a key (which need not be present).
+     * @return the largest key less than or equal to key, or null if there is no such key.
+     */
+    Key floor(Key key);
+
+    /**
+     * @param key a key (which need not be present).
+     * @return the smallest key greater than or equal to key, or null if there is no such key.
+     */
+    Key ceiling(Key key);
+
+    /**
+     * @param lo the lower bound (inclusive).
+     * @param hi the upper bound (inclusive).
+     * @return the number of keys k in this BST such that lo &lt;= k &lt;= hi.
+     */
+    int rangeCount(Key lo, Key hi);
+
+    /**
+     * @param lo the lower bound (inclusive).
+     * @param hi the upper bound (inclusive).
+     * @return an iterator which yields, in order, the keys k of this BST such that lo &lt;= k &lt;= hi.
+     */
+    Iterator<Key> rangeIterator(Key lo, Key hi);
+}
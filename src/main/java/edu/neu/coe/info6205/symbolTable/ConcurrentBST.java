@@ -0,0 +1,488 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+
+/**
+ * Simple (unbalanced) binary search tree which may be shared by any number of threads, without external locking.
+ * <p>
+ * Readers (get and contains) never take a lock in the common case: they simply walk down the (volatile) links.
+ * Writers lock only the nodes whose links or values they change, always locking from the top of the tree downwards,
+ * and validate (after locking) that those nodes are still linked as they were when found; otherwise they start again.
+ * <ul>
+ * <li>put of an existing key locks only that node; put of a new key locks only the parent of the new leaf.
+ * Like a reader, it validates (while holding that lock) that no key has been relocated during its search.</li>
+ * <li>delete of a node with at most one child locks the node and its parent: the child simply takes its place.</li>
+ * <li>delete of a node x with two children (Hibbard deletion) locks the parent of x, x, the successor (or, for
+ * deleteRandom, possibly the predecessor) and its parent. A copy of the successor takes the place of x,
+ * and then the original successor is unlinked.</li>
+ * </ul>
+ * The last case is the only one which moves a key to a different position in the tree, and so the only one which can
+ * cause a concurrent reader to miss a key which is present throughout. Such relocations are therefore done while
+ * holding the write lock of a StampedLock (which serializes relocations, but not any other writes), and a reader
+ * which fails to find its key validates an optimistic read stamp: if a relocation has intervened, it looks again.
+ * A reader which is unlucky several times in a row takes the read lock, which excludes relocations only.
+ * <p>
+ * Removed nodes are marked (before they are unlinked) so that a writer which has locked a removed node knows to retry.
+ * The links of a removed node are left intact, so a reader which is already on its way through it is not lost.
+ * <p>
+ * Since a node cannot know the size of its subtree without every writer locking every ancestor,
+ * the size is kept in a separate counter. Methods which visit the whole tree (depth, inOrderTraverse, keySet)
+ * are weakly consistent: they are exact only when there are no concurrent writers.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class ConcurrentBST<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
+
+    /**
+     * Constructor for an empty ConcurrentBST.
+     *
+     * @param random the source of randomness used by deleteRandom (java.util.Random is thread-safe).
+     */
+    public ConcurrentBST(Random random) {
+        this.random = random;
+    }
+
+    public ConcurrentBST() {
+        this(new Random());
+    }
+
+    @Override
+    public Boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        List<Key> ks = new ArrayList<>(map.keySet());
+        Collections.shuffle(ks);
+        for (Key k : ks) put(k, map.get(k));
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public Value get(Key key) {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = relocations.tryOptimisticRead();
+            if (stamp == 0) continue;
+            Node node = getNode(key);
+            if (node != null) {
+                Value result = node.value;
+                if (!node.removed) return result;
+            }
+            if (relocations.validate(stamp)) return null;
+        }
+        long stamp = relocations.readLock();
+        try {
+            Node node = getNode(key);
+            if (node == null) return null;
+            Value result = node.value;
+            return node.removed ? null : result;
+        } finally {
+            relocations.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Method to put the key/value pair into this BST.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key.
+     * @return the previous value associated with key, or null if the key was not present.
+     */
+    @Override
+    public Value put(Key key, Value value) {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = relocations.tryOptimisticRead();
+            if (stamp == 0) continue;
+            Object result = tryPut(key, value, stamp);
+            if (result != AGAIN) return cast(result);
+        }
+        long stamp = relocations.readLock();
+        try {
+            while (true) {
+                Object result = tryPut(key, value, 0);
+                if (result != AGAIN) return cast(result);
+            }
+        } finally {
+            relocations.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        Set<Key> result = new LinkedHashSet<>();
+        inOrderTraverse((k, v) -> {
+            result.add(k);
+            return null;
+        });
+        return result;
+    }
+
+    /**
+     * Method to delete the given key using Hibbard deletion, i.e. a node with two children is replaced by its successor.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void delete(Key key) {
+        delete(key, true);
+    }
+
+    /**
+     * Method to delete the given key, replacing a node with two children by either its successor or its predecessor.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void deleteRandom(Key key) {
+        delete(key, random.nextBoolean());
+    }
+
+    /**
+     * Method to delete the smallest key. Since another thread may delete that key first, this is retried until either
+     * some key has been deleted by this call or the tree is empty.
+     */
+    @Override
+    public void deleteMin() {
+        while (true) {
+            Node node = head.larger;
+            if (node == null) return;
+            while (node.smaller != null) node = node.smaller;
+            if (delete(node.key, true)) return;
+        }
+    }
+
+    @Override
+    public void deleteMax() {
+        while (true) {
+            Node node = head.larger;
+            if (node == null) return;
+            while (node.larger != null) node = node.larger;
+            if (delete(node.key, true)) return;
+        }
+    }
+
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        Deque<Node> stack = new ArrayDeque<>();
+        for (Node node = head.larger; node != null; node = node.smaller) stack.push(node);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (!node.removed) f.apply(node.key, node.value);
+            for (Node x = node.larger; x != null; x = x.smaller) stack.push(x);
+        }
+    }
+
+    /**
+     * Yield the total depth of this BST. If it is empty, then depth will be 0.
+     * The tree is walked depth-first using an explicit stack.
+     *
+     * @return the total number of levels in this BST.
+     */
+    @Override
+    public int depth() {
+        int result = 0;
+        Deque<Node> nodes = new ArrayDeque<>();
+        Deque<Integer> levels = new ArrayDeque<>();
+        if (head.larger != null) {
+            nodes.push(head.larger);
+            levels.push(1);
+        }
+        while (!nodes.isEmpty()) {
+            Node node = nodes.pop();
+            int level = levels.pop();
+            if (level > result) result = level;
+            Node smaller = node.smaller;
+            Node larger = node.larger;
+            if (smaller != null) {
+                nodes.push(smaller);
+                levels.push(level + 1);
+            }
+            if (larger != null) {
+                nodes.push(larger);
+                levels.push(level + 1);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ConcurrentBST{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    /**
+     * Method to find the node for key, without locking.
+     *
+     * @param key the key.
+     * @return the node for key (which may since have been removed), or null.
+     */
+    private Node getNode(Key key) {
+        Node node = head.larger;
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf < 0) node = node.smaller;
+            else if (cf > 0) node = node.larger;
+            else return node;
+        }
+        return null;
+    }
+
+    /**
+     * Method to make one attempt at putting key/value into this BST.
+     * A new leaf is only linked if no key has been relocated since the search began: otherwise, the search might have
+     * missed the (relocated) node for key, and a duplicate would be added.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key.
+     * @param stamp an optimistic read stamp from relocations, or 0 if the caller holds its read lock.
+     * @return the previous value associated with key (or null), or AGAIN if the attempt must be retried.
+     */
+    private Object tryPut(Key key, Value value, long stamp) {
+        Node parent = head;
+        Node node = head.larger;
+        int cf = 1;
+        while (node != null) {
+            cf = key.compareTo(node.key);
+            if (cf == 0) break;
+            parent = node;
+            node = cf < 0 ? node.smaller : node.larger;
+        }
+        if (node != null) {
+            node.lock();
+            try {
+                if (node.removed) return AGAIN;
+                Value result = node.value;
+                node.value = value;
+                return result;
+            } finally {
+                node.unlock();
+            }
+        }
+        parent.lock();
+        try {
+            if (parent.removed || parent.child(cf) != null || (stamp != 0 && !relocations.validate(stamp)))
+                return AGAIN;
+            parent.setChild(cf, new Node(key, value));
+            count.incrementAndGet();
+            return null;
+        } finally {
+            parent.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Value cast(Object value) {
+        return (Value) value;
+    }
+
+    /**
+     * Method to delete key from this BST.
+     *
+     * @param key       the key to delete.
+     * @param successor if true, a node with two children is replaced by its successor, otherwise by its predecessor.
+     * @return true if key was deleted by this call.
+     */
+    private boolean delete(Key key, boolean successor) {
+        int misses = 0;
+        while (misses < OPTIMISTIC_ATTEMPTS) {
+            long stamp = relocations.tryOptimisticRead();
+            int result = tryDelete(key, false, successor);
+            if (result == DELETED) return true;
+            if (result == TWO_CHILDREN) break;
+            if (result == NOT_FOUND) {
+                // Make sure that the key was not simply relocated while we were looking for it.
+                if (stamp != 0 && relocations.validate(stamp)) return false;
+                misses++;
+            }
+        }
+        long stamp = relocations.writeLock();
+        try {
+            while (true) {
+                int result = tryDelete(key, true, successor);
+                if (result != RETRY) return result == DELETED;
+            }
+        } finally {
+            relocations.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Method to make one attempt at deleting key.
+     *
+     * @param key       the key to delete.
+     * @param relocate  true if the caller holds the write lock of relocations (and so may delete a node with two children).
+     * @param successor if true, a node with two children is replaced by its successor, otherwise by its predecessor.
+     * @return DELETED, NOT_FOUND, TWO_CHILDREN (only if relocate is false) or RETRY (if there was a concurrent change).
+     */
+    private int tryDelete(Key key, boolean relocate, boolean successor) {
+        Node parent = head;
+        Node x = head.larger;
+        int cf = 1;
+        while (x != null) {
+            int c = key.compareTo(x.key);
+            if (c == 0) break;
+            parent = x;
+            cf = c;
+            x = c < 0 ? x.smaller : x.larger;
+        }
+        if (x == null) return NOT_FOUND;
+        parent.lock();
+        try {
+            if (parent.removed || parent.child(cf) != x) return RETRY;
+            x.lock();
+            try {
+                if (x.removed) return RETRY;
+                if (x.smaller == null || x.larger == null) {
+                    x.removed = true;
+                    parent.setChild(cf, x.smaller != null ? x.smaller : x.larger);
+                } else if (!relocate) return TWO_CHILDREN;
+                else if (!(successor ? relocateSuccessor(parent, cf, x) : relocatePredecessor(parent, cf, x)))
+                    return RETRY;
+                count.decrementAndGet();
+                return DELETED;
+            } finally {
+                x.unlock();
+            }
+        } finally {
+            parent.unlock();
+        }
+    }
+
+    /**
+     * Method to replace x (which has two children, and which is locked, as is its parent) by a copy of its successor,
+     * and then to unlink the successor itself.
+     *
+     * @param parent the parent of x.
+     * @param cf     the side of parent on which x is found.
+     * @param x      the node to be removed.
+     * @return true if successful, false if the successor changed before it could be locked.
+     */
+    private boolean relocateSuccessor(Node parent, int cf, Node x) {
+        Node sp = x;
+        Node s = x.larger;
+        while (s.smaller != null) {
+            sp = s;
+            s = s.smaller;
+        }
+        if (sp != x) sp.lock();
+        try {
+            s.lock();
+            try {
+                if (s.removed || s.smaller != null || (sp == x ? x.larger : sp.smaller) != s || sp.removed) return false;
+                Node t = new Node(s.key, s.value);
+                t.smaller = x.smaller;
+                t.larger = sp == x ? s.larger : x.larger;
+                x.removed = true;
+                s.removed = true;
+                parent.setChild(cf, t);
+                if (sp != x) sp.smaller = s.larger;
+                return true;
+            } finally {
+                s.unlock();
+            }
+        } finally {
+            if (sp != x) sp.unlock();
+        }
+    }
+
+    /**
+     * Method to replace x by a copy of its predecessor. This is the mirror image of relocateSuccessor.
+     */
+    private boolean relocatePredecessor(Node parent, int cf, Node x) {
+        Node sp = x;
+        Node s = x.smaller;
+        while (s.larger != null) {
+            sp = s;
+            s = s.larger;
+        }
+        if (sp != x) sp.lock();
+        try {
+            s.lock();
+            try {
+                if (s.removed || s.larger != null || (sp == x ? x.smaller : sp.larger) != s || sp.removed) return false;
+                Node t = new Node(s.key, s.value);
+                t.larger = x.larger;
+                t.smaller = sp == x ? s.smaller : x.smaller;
+                x.removed = true;
+                s.removed = true;
+                parent.setChild(cf, t);
+                if (sp != x) sp.larger = s.smaller;
+                return true;
+            } finally {
+                s.unlock();
+            }
+        } finally {
+            if (sp != x) sp.unlock();
+        }
+    }
+
+    /**
+     * A node is its own lock. Its key never changes; all other fields are volatile so that readers need no lock.
+     */
+    @SuppressWarnings("serial")
+    class Node extends ReentrantLock {
+        Node(Key key, Value value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        Node child(int cf) {
+            return cf < 0 ? smaller : larger;
+        }
+
+        void setChild(int cf, Node node) {
+            if (cf < 0) smaller = node;
+            else larger = node;
+        }
+
+        final Key key;
+        volatile Value value;
+        volatile Node smaller = null;
+        volatile Node larger = null;
+        // Set (while locked) just before this node is unlinked from the tree.
+        volatile boolean removed = false;
+
+        @Override
+        public String toString() {
+            return "Node: " + key + ":" + value + (removed ? " (removed)" : "");
+        }
+    }
+
+    // The number of attempts a reader (or deleter) makes before taking a lock which excludes relocations.
+    private static final int OPTIMISTIC_ATTEMPTS = 4;
+
+    // The result of tryPut when the attempt must be retried.
+    private static final Object AGAIN = new Object();
+
+    // The possible results of tryDelete.
+    private static final int DELETED = 0;
+    private static final int NOT_FOUND = 1;
+    private static final int TWO_CHILDREN = 2;
+    private static final int RETRY = 3;
+
+    // The sentinel whose larger link is the root of the tree (so that the root always has a parent to lock).
+    final Node head = new Node(null, null);
+
+    // Held (in write mode) while a key is being relocated by the deletion of a node with two children.
+    private final StampedLock relocations = new StampedLock();
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    // Used by deleteRandom to choose between successor and predecessor.
+    private final Random random;
+}
@@ -0,0 +1,249 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Parallel, deterministic runner for the BST deletion experiment.
+ * <p>
+ * A trial of size N starts with a tree containing the single key 500, and then mixes N random key additions with N/2
+ * random deletions (keys and values are in the range 1..N), after which the max depth and size of the tree are recorded.
+ * The trials for each size are independent, so they are executed as a fork-join computation.
+ * <p>
+ * Each trial is given its own SplittableRandom, split (in trial order) from a master generator with the given seed.
+ * The sum of the per-trial results is combined on the way back up the fork-join tree (no locks, no shared state),
+ * so that the results for a given seed are identical however many threads are used.
+ */
+public class DeletionExperiment {
+
+    /**
+     * The operations on a tree which are required by a trial.
+     */
+    public interface Subject {
+        void put(int key, int value);
+
+        void delete(int key);
+
+        int depth();
+
+        int size();
+    }
+
+    /**
+     * Method to adapt a BstDetail (of Integer keys and values) as a Subject.
+     *
+     * @param factory a function which, given a (trial-specific) Random, yields an empty tree.
+     * @param deleter the deletion method to be used on each tree, for example BstDetail::delete or BstDetail::deleteRandom.
+     * @return a function which, given a Random, yields a Subject.
+     */
+    public static Function<Random, Subject> of(Function<Random, BstDetail<Integer, Integer>> factory, BiConsumer<BstDetail<Integer, Integer>, Integer> deleter) {
+        return random -> {
+            BstDetail<Integer, Integer> bst = factory.apply(random);
+            return new Subject() {
+                public void put(int key, int value) {
+                    bst.put(key, value);
+                }
+
+                public void delete(int key) {
+                    deleter.accept(bst, key);
+                }
+
+                public int depth() {
+                    return bst.depth();
+                }
+
+                public int size() {
+                    return bst.size();
+                }
+            };
+        };
+    }
+
+    /**
+     * Method to adapt an IntIntBST as a Subject.
+     *
+     * @param hibbard if true, delete is used; otherwise deleteRandom.
+     * @return a function which, given a Random, yields a Subject.
+     */
+    public static Function<Random, Subject> ofIntInt(boolean hibbard) {
+        return random -> {
+            IntIntBST bst = new IntIntBST(16, random);
+            return new Subject() {
+                public void put(int key, int value) {
+                    bst.put(key, value);
+                }
+
+                public void delete(int key) {
+                    if (hibbard) bst.delete(key);
+                    else bst.deleteRandom(key);
+                }
+
+                public int depth() {
+                    return bst.depth();
+                }
+
+                public int size() {
+                    return bst.size();
+                }
+            };
+        };
+    }
+
+    /**
+     * Constructor for a DeletionExperiment which runs on the common fork-join pool.
+     *
+     * @param factory a function which, given a (trial-specific) Random, yields an empty Subject.
+     * @param trials  the number of trials for each size.
+     * @param seed    the master seed.
+     */
+    public DeletionExperiment(Function<Random, Subject> factory, int trials, long seed) {
+        this(factory, trials, seed, ForkJoinPool.commonPool());
+    }
+
+    public DeletionExperiment(Function<Random, Subject> factory, int trials, long seed, ForkJoinPool pool) {
+        if (trials < 1) throw new IllegalArgumentException("DeletionExperiment: trials must be positive: " + trials);
+        this.factory = factory;
+        this.trials = trials;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Method to run all of the trials for size n.
+     *
+     * @param n the number of additions (there will be n/2 deletions).
+     * @return the aggregated Result.
+     */
+    public Result run(int n) {
+        SplittableRandom master = new SplittableRandom(seed ^ n);
+        SplittableRandom[] randoms = new SplittableRandom[trials];
+        for (int i = 0; i < trials; i++) randoms[i] = master.split();
+        long start = System.nanoTime();
+        Result result = pool.invoke(new TrialTask(n, randoms, 0, trials));
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Method to run the experiment for each size from "from" to "to" (inclusive), doubling each time.
+     *
+     * @param from the smallest size.
+     * @param to   the largest size.
+     * @return a list of Results, one per size.
+     */
+    public List<Result> sweep(int from, int to) {
+        List<Result> result = new ArrayList<>();
+        for (int n = from; n <= to; n *= 2) result.add(run(n));
+        return result;
+    }
+
+    /**
+     * Method to run a single trial.
+     *
+     * @param n      the number of additions (there will be n/2 deletions).
+     * @param random the random source for this trial.
+     * @return the Result of one trial.
+     */
+    Result trial(int n, SplittableRandom random) {
+        Subject subject = factory.apply(new Random(random.nextLong()));
+        int dt = n / 2;
+        subject.put(500, 100);
+        int i = 0;
+        int j = 0;
+        while (i < n || j < dt) {
+            boolean insert = random.nextBoolean();
+            int key = random.nextInt(n) + 1;
+            int value = random.nextInt(n) + 1;
+            if (insert && i < n) {
+                subject.put(key, value);
+                i++;
+            }
+            if (!insert && j < dt) {
+                subject.delete(key);
+                j++;
+            }
+        }
+        return new Result(n, 1, subject.depth(), subject.size());
+    }
+
+    /**
+     * The aggregated results of a number of trials of the same size.
+     */
+    public static class Result {
+        public Result(int n, int trials, long sumDepth, long sumN) {
+            this.n = n;
+            this.trials = trials;
+            this.sumDepth = sumDepth;
+            this.sumN = sumN;
+        }
+
+        Result combine(Result other) {
+            return new Result(n, trials + other.trials, sumDepth + other.sumDepth, sumN + other.sumN);
+        }
+
+        public double meanDepth() {
+            return (double) sumDepth / trials;
+        }
+
+        public double meanN() {
+            return (double) sumN / trials;
+        }
+
+        public double lgN() {
+            return Math.log(meanN()) / Math.log(2);
+        }
+
+        /**
+         * @return the throughput in operations (additions and deletions) per millisecond.
+         */
+        public double throughput() {
+            return trials * (n + n / 2 + 1) / (nanos / 1e6);
+        }
+
+        @Override
+        public String toString() {
+            return "N=" + String.format("%.2f", meanN()) + ", lgN = " + String.format("%.2f", lgN()) + ", Mean Max depth: " + String.format("%.2f", meanDepth()) + ", throughput: " + String.format("%.0f", throughput()) + " ops/ms";
+        }
+
+        final int n;
+        final int trials;
+        final long sumDepth;
+        final long sumN;
+        long nanos;
+    }
+
+    private class TrialTask extends RecursiveTask<Result> {
+        TrialTask(int n, SplittableRandom[] randoms, int from, int to) {
+            this.n = n;
+            this.randoms = randoms;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from == 1) return trial(n, randoms[from]);
+            int mid = (from + to) >>> 1;
+            TrialTask smaller = new TrialTask(n, randoms, from, mid);
+            smaller.fork();
+            Result larger = new TrialTask(n, randoms, mid, to).compute();
+            return smaller.join().combine(larger);
+        }
+
+        private final int n;
+        private final SplittableRandom[] randoms;
+        private final int from;
+        private final int to;
+    }
+
+    private final Function<Random, Subject> factory;
+    private final int trials;
+    private final long seed;
+    private final ForkJoinPool pool;
+}
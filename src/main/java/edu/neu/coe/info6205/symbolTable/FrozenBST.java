@@ -0,0 +1,135 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.function.BiFunction;
+
+/**
+ * Immutable snapshot of a BST, laid out as an implicit, perfectly balanced tree in Eytzinger (breadth-first) order.
+ * See BSTSimple.freeze.
+ * <p>
+ * The keys and values are held in two arrays, indexed from 1: the children of the node at index k are at 2k and 2k+1.
+ * Thus there are no node objects (and no links) to chase, the top levels of the tree (which every search visits)
+ * are packed together at the start of the arrays, and the 16 descendants four levels below any node are adjacent.
+ * <p>
+ * A search always descends to the bottom of the tree, choosing between the two children arithmetically rather than by a
+ * branch, so there are no mispredictions to stall the processor and the loads of successive levels can be issued
+ * speculatively. The index of the smallest key not less than the target is then recovered from the path
+ * (see lowerBound). The depth of the tree is floor(lg N) + 1, whatever the shape of the tree from which it was frozen.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class FrozenBST<Key extends Comparable<Key>, Value> {
+
+    /**
+     * Constructor for a FrozenBST (see BSTSimple.freeze).
+     *
+     * @param sortedKeys the keys in ascending order (without duplicates).
+     * @param values     the corresponding values.
+     */
+    @SuppressWarnings("unchecked")
+    FrozenBST(Key[] sortedKeys, Value[] values) {
+        n = sortedKeys.length;
+        keys = (Key[]) new Comparable[n + 1];
+        this.values = (Value[]) new Object[n + 1];
+        layout(sortedKeys, values);
+    }
+
+    public Value get(Key key) {
+        int k = lowerBound(key);
+        return k != 0 && keys[k].compareTo(key) == 0 ? values[k] : null;
+    }
+
+    public boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key the key.
+     * @return the smallest key which is greater than or equal to key, or null if there is none.
+     */
+    public Key ceiling(Key key) {
+        return keys[lowerBound(key)];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @return the number of levels in this tree.
+     */
+    public int depth() {
+        return 32 - Integer.numberOfLeadingZeros(n);
+    }
+
+    /**
+     * Method to traverse this tree in key order.
+     * Each step to the next index is computed from the current one, so no stack is required.
+     *
+     * @param f the function to apply to each key and value.
+     */
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        if (n == 0) return;
+        int k = leftmost(1);
+        while (k != 0) {
+            f.apply(keys[k], values[k]);
+            // The next node is the leftmost node of the larger subtree, if any;
+            // otherwise the parent of the closest ancestor (or self) which is a smaller child.
+            if (2 * k + 1 <= n) k = leftmost(2 * k + 1);
+            else k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("FrozenBST{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    /**
+     * Method to find the index of the smallest key which is not less than key.
+     * <p>
+     * The descent appends one bit to k per level: 1 if the key at k is less than key (go larger), else 0 (go smaller).
+     * The node we want is the last one at which we went smaller, so we strip off the trailing 1 bits (the run of larger
+     * steps at the end), and then the 0 bit which precedes them.
+     *
+     * @param key the key.
+     * @return the index of the lower bound of key, or 0 if every key is less than key.
+     */
+    private int lowerBound(Key key) {
+        int k = 1;
+        while (k <= n) k = 2 * k + (keys[k].compareTo(key) >>> 31);
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    private int leftmost(int k) {
+        while (2 * k <= n) k = 2 * k;
+        return k;
+    }
+
+    /**
+     * Method to copy the sorted keys (and values) into Eytzinger order, by an in-order walk of the implicit tree.
+     * The walk is iterative, using the same stepping as inOrderTraverse.
+     */
+    private void layout(Key[] sortedKeys, Value[] sortedValues) {
+        if (n == 0) return;
+        int k = leftmost(1);
+        for (int i = 0; i < n; i++) {
+            keys[k] = sortedKeys[i];
+            values[k] = sortedValues[i];
+            if (2 * k + 1 <= n) k = leftmost(2 * k + 1);
+            else k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        }
+    }
+
+    // The number of keys.
+    private final int n;
+
+    // The keys and values, in Eytzinger order, from index 1 (index 0 is always null).
+    private final Key[] keys;
+    private final Value[] values;
+}
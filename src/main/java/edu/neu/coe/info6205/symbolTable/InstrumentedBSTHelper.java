@@ -0,0 +1,92 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.StatPack;
+
+/**
+ * Helper class for BSTSimple which records, in a StatPack, one sample per operation of each of the statistics
+ * which are enabled in the [bstinstrumenting] section of the configuration:
+ * <ul>
+ * <li>compares: the number of key comparisons made by each get, put or delete;</li>
+ * <li>visits: the number of nodes visited by each get, put and delete (recorded separately);</li>
+ * <li>successors: the length of each search for a successor (or predecessor) in a deletion;</li>
+ * <li>counts: the number of count fields updated by each put or delete.</li>
+ * </ul>
+ * Only running totals of each statistic are kept (see Statistics), so that the memory used is fixed
+ * however many operations are recorded; but the cost of recording each operation still makes this a helper for
+ * experiments rather than production.
+ * <p>
+ * The recording methods are synchronized, since the parallel batch methods of BSTSimple (putAll(Map, ForkJoinPool) and
+ * deleteAll(Collection, ForkJoinPool)) split the tree into parts which share this helper and are updated by different
+ * threads at the same time. The lock is uncontended except during such a batch.
+ */
+public class InstrumentedBSTHelper extends BSTHelper {
+
+    /**
+     * Constructor for an InstrumentedBSTHelper.
+     *
+     * @param n      the expected number of operations (unused, since no samples are kept).
+     * @param config the configuration.
+     */
+    public InstrumentedBSTHelper(int n, Config config) {
+        this.countCompares = config.getBoolean(BST_INSTRUMENTING, COMPARES);
+        this.countVisits = config.getBoolean(BST_INSTRUMENTING, VISITS);
+        this.countSuccessors = config.getBoolean(BST_INSTRUMENTING, SUCCESSORS);
+        this.countUpdates = config.getBoolean(BST_INSTRUMENTING, COUNTS);
+        this.statPack = new StatPack(Math.max(n, 1), COMPARES, GET_VISITS, PUT_VISITS, DELETE_VISITS, SUCCESSORS, COUNTS);
+    }
+
+    /**
+     * @return true
+     */
+    @Override
+    public boolean instrumented() {
+        return true;
+    }
+
+    @Override
+    public synchronized void get(int visits) {
+        if (countCompares) statPack.add(COMPARES, visits);
+        if (countVisits) statPack.add(GET_VISITS, visits);
+    }
+
+    @Override
+    public synchronized void put(int visits, int countUpdates) {
+        if (countCompares) statPack.add(COMPARES, visits);
+        if (countVisits) statPack.add(PUT_VISITS, visits);
+        if (this.countUpdates) statPack.add(COUNTS, countUpdates);
+    }
+
+    @Override
+    public synchronized void delete(int visits, int successorSearch, int countUpdates) {
+        if (countCompares) statPack.add(COMPARES, visits);
+        if (countVisits) statPack.add(DELETE_VISITS, visits);
+        if (countSuccessors && successorSearch > 0) statPack.add(SUCCESSORS, successorSearch);
+        if (this.countUpdates) statPack.add(COUNTS, countUpdates);
+    }
+
+    @Override
+    public synchronized StatPack getStatPack() {
+        return statPack;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "InstrumentedBSTHelper: " + statPack;
+    }
+
+    public static final String BST_INSTRUMENTING = "bstinstrumenting";
+    public static final String COMPARES = "compares";
+    public static final String VISITS = "visits";
+    public static final String GET_VISITS = "get visits";
+    public static final String PUT_VISITS = "put visits";
+    public static final String DELETE_VISITS = "delete visits";
+    public static final String SUCCESSORS = "successors";
+    public static final String COUNTS = "counts";
+
+    private final boolean countCompares;
+    private final boolean countVisits;
+    private final boolean countSuccessors;
+    private final boolean countUpdates;
+    private final StatPack statPack;
+}
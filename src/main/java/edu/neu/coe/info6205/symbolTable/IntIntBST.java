@@ -0,0 +1,332 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Simple (unbalanced) binary search tree with primitive int keys and int values.
+ * <p>
+ * Rather than allocating a Node object per entry, this tree keeps a pool of nodes in five parallel arrays
+ * (keys, values, smaller, larger, count), so that a node is simply an index into those arrays and an entry costs
+ * 20 bytes (plus whatever slack the arrays have). Nothing is boxed.
+ * The slots of deleted nodes are chained together (through smaller) into a free list and reused by subsequent puts.
+ * <p>
+ * The algorithms are the same as those of BSTSimple: Hibbard deletion for delete, and a random choice between successor
+ * and predecessor for deleteRandom. All of the operations are iterative.
+ */
+public class IntIntBST {
+
+    /**
+     * Constructor for an empty IntIntBST.
+     *
+     * @param capacity the initial number of node slots (the pool grows as necessary).
+     * @param random   the source of randomness used by deleteRandom (for reproducible experiments).
+     */
+    public IntIntBST(int capacity, Random random) {
+        this.random = random;
+        int length = Math.max(capacity, 1);
+        keys = new int[length];
+        values = new int[length];
+        smaller = new int[length];
+        larger = new int[length];
+        count = new int[length];
+    }
+
+    public IntIntBST(int capacity) {
+        this(capacity, new Random());
+    }
+
+    public IntIntBST() {
+        this(16);
+    }
+
+    public int size() {
+        return root != NIL ? count[root] : 0;
+    }
+
+    public boolean contains(int key) {
+        return getNode(key) != NIL;
+    }
+
+    /**
+     * Method to get the value associated with key.
+     *
+     * @param key          the key.
+     * @param defaultValue the value to return if key is not present.
+     * @return the value associated with key, otherwise defaultValue.
+     */
+    public int get(int key, int defaultValue) {
+        int node = getNode(key);
+        return node != NIL ? values[node] : defaultValue;
+    }
+
+    /**
+     * Method to put the key/value pair into this BST.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key.
+     * @return true if key was newly inserted; false if the value of an existing key was replaced.
+     */
+    public boolean put(int key, int value) {
+        if (root == NIL) {
+            root = newNode(key, value);
+            return true;
+        }
+        int n = 0;
+        int node = root;
+        while (true) {
+            int k = keys[node];
+            if (key == k) {
+                values[node] = value;
+                return false;
+            }
+            n = push(n, node);
+            int next = key < k ? smaller[node] : larger[node];
+            if (next == NIL) {
+                // NOTE: newNode may grow the arrays, so we must not hold on to them across this call.
+                int x = newNode(key, value);
+                if (key < k) smaller[node] = x;
+                else larger[node] = x;
+                for (int i = 0; i < n; i++) count[path[i]]++;
+                return true;
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * Method to delete the given key using Hibbard deletion, i.e. a node with two children is replaced by its successor.
+     *
+     * @param key the key to delete.
+     */
+    public void delete(int key) {
+        delete(key, true);
+    }
+
+    /**
+     * Method to delete the given key, replacing a node with two children by either its successor or its predecessor.
+     *
+     * @param key the key to delete.
+     */
+    public void deleteRandom(int key) {
+        delete(key, random.nextBoolean());
+    }
+
+    public void deleteMin() {
+        if (root == NIL) return;
+        int parent = NIL;
+        int x = root;
+        while (smaller[x] != NIL) {
+            count[x]--;
+            parent = x;
+            x = smaller[x];
+        }
+        link(parent, x, larger[x]);
+        free(x);
+    }
+
+    public void deleteMax() {
+        if (root == NIL) return;
+        int parent = NIL;
+        int x = root;
+        while (larger[x] != NIL) {
+            count[x]--;
+            parent = x;
+            x = larger[x];
+        }
+        link(parent, x, smaller[x]);
+        free(x);
+    }
+
+    /**
+     * Method to yield the depth of a key, relative to the root.
+     *
+     * @param key the key whose depth we are interested in.
+     * @return the depth of the key (root: 0) otherwise -1 if key is not found.
+     */
+    public int depth(int key) {
+        int result = 0;
+        int node = root;
+        while (node != NIL) {
+            int k = keys[node];
+            if (key == k) return result;
+            node = key < k ? smaller[node] : larger[node];
+            result++;
+        }
+        return -1;
+    }
+
+    /**
+     * Yield the total depth of this BST. If root is NIL, then depth will be 0.
+     * The tree is walked depth-first using an explicit stack.
+     *
+     * @return the total number of levels in this BST.
+     */
+    public int depth() {
+        if (root == NIL) return 0;
+        int[] nodes = new int[32];
+        int[] levels = new int[32];
+        int n = 0;
+        int result = 0;
+        nodes[n] = root;
+        levels[n++] = 1;
+        while (n > 0) {
+            int node = nodes[--n];
+            int level = levels[n];
+            if (level > result) result = level;
+            if (n + 2 > nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                levels = Arrays.copyOf(levels, levels.length * 2);
+            }
+            if (smaller[node] != NIL) {
+                nodes[n] = smaller[node];
+                levels[n++] = level + 1;
+            }
+            if (larger[node] != NIL) {
+                nodes[n] = larger[node];
+                levels[n++] = level + 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of node slots currently allocated (in use or free).
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    private int getNode(int key) {
+        int node = root;
+        while (node != NIL) {
+            int k = keys[node];
+            if (key < k) node = smaller[node];
+            else if (key > k) node = larger[node];
+            else return node;
+        }
+        return NIL;
+    }
+
+    private void delete(int key, boolean successor) {
+        int n = 0;
+        int x = root;
+        while (x != NIL) {
+            int k = keys[x];
+            if (key == k) break;
+            n = push(n, x);
+            x = key < k ? smaller[x] : larger[x];
+        }
+        if (x == NIL) return;
+        int replacement;
+        if (larger[x] == NIL) replacement = smaller[x];
+        else if (smaller[x] == NIL) replacement = larger[x];
+        else replacement = successor ? promoteSuccessor(x) : promotePredecessor(x);
+        link(n > 0 ? path[n - 1] : NIL, x, replacement);
+        for (int i = 0; i < n; i++) count[path[i]]--;
+        free(x);
+    }
+
+    private int promoteSuccessor(int x) {
+        int parent = NIL;
+        int t = larger[x];
+        while (smaller[t] != NIL) {
+            count[t]--;
+            parent = t;
+            t = smaller[t];
+        }
+        if (parent != NIL) {
+            smaller[parent] = larger[t];
+            larger[t] = larger[x];
+        }
+        smaller[t] = smaller[x];
+        count[t] = count[x] - 1;
+        return t;
+    }
+
+    private int promotePredecessor(int x) {
+        int parent = NIL;
+        int t = smaller[x];
+        while (larger[t] != NIL) {
+            count[t]--;
+            parent = t;
+            t = larger[t];
+        }
+        if (parent != NIL) {
+            larger[parent] = smaller[t];
+            smaller[t] = smaller[x];
+        }
+        larger[t] = larger[x];
+        count[t] = count[x] - 1;
+        return t;
+    }
+
+    private void link(int parent, int child, int replacement) {
+        if (parent == NIL) root = replacement;
+        else if (smaller[parent] == child) smaller[parent] = replacement;
+        else larger[parent] = replacement;
+    }
+
+    private int push(int n, int node) {
+        if (n == path.length) path = Arrays.copyOf(path, n * 2);
+        path[n] = node;
+        return n + 1;
+    }
+
+    /**
+     * Method to allocate a leaf node for key/value, taking it from the free list if possible.
+     */
+    private int newNode(int key, int value) {
+        int result;
+        if (free != NIL) {
+            result = free;
+            free = smaller[free];
+        } else {
+            if (high == keys.length) grow();
+            result = high++;
+        }
+        keys[result] = key;
+        values[result] = value;
+        smaller[result] = NIL;
+        larger[result] = NIL;
+        count[result] = 1;
+        return result;
+    }
+
+    /**
+     * Method to return the slot of node x to the free list.
+     */
+    private void free(int x) {
+        smaller[x] = free;
+        free = x;
+    }
+
+    private void grow() {
+        int length = keys.length * 2;
+        keys = Arrays.copyOf(keys, length);
+        values = Arrays.copyOf(values, length);
+        smaller = Arrays.copyOf(smaller, length);
+        larger = Arrays.copyOf(larger, length);
+        count = Arrays.copyOf(count, length);
+    }
+
+    static final int NIL = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int[] smaller;
+    private int[] larger;
+    private int[] count;
+
+    int root = NIL;
+    // The head of the list of free slots (chained through smaller).
+    private int free = NIL;
+    // The number of slots which have ever been used.
+    private int high = 0;
+
+    // Used by deleteRandom to choose between successor and predecessor.
+    private final Random random;
+
+    // The nodes visited (from the root downwards) by the current put or delete.
+    private int[] path = new int[32];
+}
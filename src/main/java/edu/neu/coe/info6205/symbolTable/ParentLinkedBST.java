@@ -0,0 +1,361 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Simple (unbalanced) binary search tree in which every node also has a link to its parent.
+ * <p>
+ * The parent links mean that no operation needs a stack (explicit or recursive), however deep the tree may be:
+ * <ul>
+ *     <li>the successor of a node is either the minimum of its larger subtree or its nearest ancestor of which it is in
+ *     the smaller subtree: over a complete traversal each link is followed twice, so successor is O(1) amortized;</li>
+ *     <li>Hibbard deletion finds the successor (or predecessor) once and splices it into the deleted node's place
+ *     by relinking, with no second descent;</li>
+ *     <li>a range scan starts at the ceiling of lo and then follows successors: the iterator holds just one node,
+ *     and rangeTraverse allocates nothing at all;</li>
+ *     <li>depth walks the tree by following child and parent links.</li>
+ * </ul>
+ * The price is one extra reference per node and a few more writes when nodes are linked or unlinked.
+ * There are no subtree counts, so this is not a BstOrdered (rank and select would need them).
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class ParentLinkedBST<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
+
+    public ParentLinkedBST(Random random) {
+        this.random = random;
+    }
+
+    public ParentLinkedBST() {
+        this(new Random());
+    }
+
+    @Override
+    public Boolean contains(Key key) {
+        return getNode(key) != null;
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        List<Key> ks = new ArrayList<>(map.keySet());
+        Collections.shuffle(ks, random);
+        for (Key k : ks) put(k, map.get(k));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Value get(Key key) {
+        Node node = getNode(key);
+        return node != null ? node.value : null;
+    }
+
+    @Override
+    public Value put(Key key, Value value) {
+        Node parent = null;
+        Node x = root;
+        int cf = 0;
+        while (x != null) {
+            cf = key.compareTo(x.key);
+            if (cf == 0) {
+                Value result = x.value;
+                x.value = value;
+                return result;
+            }
+            parent = x;
+            x = cf < 0 ? x.smaller : x.larger;
+        }
+        Node node = new Node(key, value, parent);
+        if (parent == null) root = node;
+        else if (cf < 0) parent.smaller = node;
+        else parent.larger = node;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        Set<Key> result = new LinkedHashSet<>();
+        inOrderTraverse((k, v) -> {
+            result.add(k);
+            return null;
+        });
+        return result;
+    }
+
+    /**
+     * Method to delete the given key, using Hibbard deletion (a node with two children is replaced by its successor).
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void delete(Key key) {
+        Node x = getNode(key);
+        if (x != null) remove(x, true);
+    }
+
+    /**
+     * Method to delete the given key, replacing a node with two children by either its successor or its predecessor,
+     * at random.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void deleteRandom(Key key) {
+        Node x = getNode(key);
+        if (x != null) remove(x, random.nextBoolean());
+    }
+
+    @Override
+    public void deleteMin() {
+        if (root == null) return;
+        Node x = min(root);
+        replace(x, x.larger);
+        size--;
+    }
+
+    @Override
+    public void deleteMax() {
+        if (root == null) return;
+        Node x = max(root);
+        replace(x, x.smaller);
+        size--;
+    }
+
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        for (Node node = root != null ? min(root) : null; node != null; node = successor(node))
+            f.apply(node.key, node.value);
+    }
+
+    /**
+     * Method to apply f to each key (and its value) in the range lo thru hi (inclusive), in order.
+     * Nothing is allocated.
+     *
+     * @param lo the lower bound (inclusive).
+     * @param hi the upper bound (inclusive).
+     * @param f  the function to apply.
+     */
+    public void rangeTraverse(Key lo, Key hi, BiFunction<Key, Value, Void> f) {
+        for (Node node = ceilingNode(lo); node != null && node.key.compareTo(hi) <= 0; node = successor(node))
+            f.apply(node.key, node.value);
+    }
+
+    /**
+     * Method to yield a lazy iterator over the keys in the range lo thru hi (inclusive), in order.
+     * The iterator holds only the next node, and so allocates nothing per key.
+     * The BST must not be modified while the iteration is in progress.
+     *
+     * @param lo the lower bound (inclusive).
+     * @param hi the upper bound (inclusive).
+     * @return an iterator over the keys k such that lo &lt;= k &lt;= hi.
+     */
+    public Iterator<Key> rangeIterator(Key lo, Key hi) {
+        return new Iterator<Key>() {
+            @Override
+            public boolean hasNext() {
+                return next != null && next.key.compareTo(hi) <= 0;
+            }
+
+            @Override
+            public Key next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Key result = next.key;
+                next = successor(next);
+                return result;
+            }
+
+            private Node next = ceilingNode(lo);
+        };
+    }
+
+    /**
+     * @param key a key (which need not be present).
+     * @return the smallest key greater than or equal to key, or null if there is no such key.
+     */
+    public Key ceiling(Key key) {
+        Node node = ceilingNode(key);
+        return node != null ? node.key : null;
+    }
+
+    /**
+     * @param key a key (which need not be present).
+     * @return the largest key less than or equal to key, or null if there is no such key.
+     */
+    public Key floor(Key key) {
+        Node result = null;
+        Node x = root;
+        while (x != null) {
+            int cf = key.compareTo(x.key);
+            if (cf == 0) return x.key;
+            if (cf < 0) x = x.smaller;
+            else {
+                result = x;
+                x = x.larger;
+            }
+        }
+        return result != null ? result.key : null;
+    }
+
+    /**
+     * Yield the total depth of this BST. If it is empty, then depth will be 0.
+     * The tree is walked by following child and parent links, so no stack is required.
+     *
+     * @return the total number of levels in this BST.
+     */
+    @Override
+    public int depth() {
+        int result = 0;
+        int level = 0;
+        Node previous = null;
+        Node node = root;
+        while (node != null) {
+            Node next;
+            if (previous == node.parent) {
+                // Arrived from above: visit the smaller subtree, then the larger subtree, then go back up.
+                result = Math.max(result, ++level);
+                next = node.smaller != null ? node.smaller : node.larger != null ? node.larger : node.parent;
+            } else if (previous == node.smaller && node.larger != null) next = node.larger;
+            else next = node.parent;
+            if (next == node.parent) level--;
+            previous = node;
+            node = next;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ParentLinkedBST{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    private Node getNode(Key key) {
+        Node x = root;
+        while (x != null) {
+            int cf = key.compareTo(x.key);
+            if (cf == 0) return x;
+            x = cf < 0 ? x.smaller : x.larger;
+        }
+        return null;
+    }
+
+    private Node ceilingNode(Key key) {
+        Node result = null;
+        Node x = root;
+        while (x != null) {
+            int cf = key.compareTo(x.key);
+            if (cf == 0) return x;
+            if (cf > 0) x = x.larger;
+            else {
+                result = x;
+                x = x.smaller;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to remove node x from this BST in a single pass: if x has two children, its successor (or predecessor)
+     * is found by walking down from x and is then spliced into x's place by relinking.
+     *
+     * @param x         the node to remove.
+     * @param successor if true, a node with two children is replaced by its successor, otherwise by its predecessor.
+     */
+    private void remove(Node x, boolean successor) {
+        if (x.smaller == null) replace(x, x.larger);
+        else if (x.larger == null) replace(x, x.smaller);
+        else if (successor) {
+            Node t = min(x.larger);
+            if (t.parent != x) {
+                replace(t, t.larger);
+                t.larger = x.larger;
+                t.larger.parent = t;
+            }
+            replace(x, t);
+            t.smaller = x.smaller;
+            t.smaller.parent = t;
+        } else {
+            Node t = max(x.smaller);
+            if (t.parent != x) {
+                replace(t, t.smaller);
+                t.smaller = x.smaller;
+                t.smaller.parent = t;
+            }
+            replace(x, t);
+            t.larger = x.larger;
+            t.larger.parent = t;
+        }
+        size--;
+    }
+
+    /**
+     * Method to put replacement in the place of node (in node's parent).
+     *
+     * @param node        the node to be replaced.
+     * @param replacement the node to take its place (may be null).
+     */
+    private void replace(Node node, Node replacement) {
+        Node parent = node.parent;
+        if (parent == null) root = replacement;
+        else if (parent.smaller == node) parent.smaller = replacement;
+        else parent.larger = replacement;
+        if (replacement != null) replacement.parent = parent;
+    }
+
+    private Node successor(Node node) {
+        if (node.larger != null) return min(node.larger);
+        Node x = node;
+        Node parent = x.parent;
+        while (parent != null && x == parent.larger) {
+            x = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    private Node min(Node node) {
+        while (node.smaller != null) node = node.smaller;
+        return node;
+    }
+
+    private Node max(Node node) {
+        while (node.larger != null) node = node.larger;
+        return node;
+    }
+
+    class Node {
+        Node(Key key, Value value, Node parent) {
+            this.key = key;
+            this.value = value;
+            this.parent = parent;
+        }
+
+        final Key key;
+        Value value;
+        Node smaller = null;
+        Node larger = null;
+        Node parent;
+
+        @Override
+        public String toString() {
+            return "Node: " + key + ":" + value;
+        }
+    }
+
+    Node root = null;
+
+    private int size = 0;
+
+    // Used by deleteRandom to choose between successor and predecessor, and by putAll to shuffle the keys.
+    private final Random random;
+}
@@ -0,0 +1,348 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * Persistent (unbalanced) binary search tree, in which nodes are never modified once they have been constructed.
+ * <p>
+ * Rather than changing a node, put and delete copy the path from the root down to the node concerned
+ * (and, for a Hibbard deletion, on down to the successor or predecessor), sharing all of the other nodes with the
+ * previous version of the tree. Thus each version of the tree is immutable, and a PersistentBST is merely a handle on
+ * the current version, which is replaced (by compare-and-set, so that writers need no lock) at the end of each update.
+ * <p>
+ * Consequently, snapshot costs nothing more than the allocation of a new handle, and a reader of a snapshot
+ * (or of an iterator, which is always over the version which was current when it was created) sees a consistent view
+ * of the tree, with no locking, no matter what writers do in the meantime. An old version becomes garbage as soon as
+ * nothing (neither a handle nor an iterator) refers to its root.
+ * <p>
+ * Since nodes are immutable, each can carry the count and height of its subtree, so size and depth take constant time.
+ * As with BSTSimple, all of the operations are iterative.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class PersistentBST<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value>, Iterable<Map.Entry<Key, Value>> {
+
+    /**
+     * Constructor for an empty PersistentBST.
+     *
+     * @param random the source of randomness used by deleteRandom (java.util.Random is thread-safe).
+     */
+    public PersistentBST(Random random) {
+        this(random, null);
+    }
+
+    public PersistentBST() {
+        this(new Random());
+    }
+
+    /**
+     * Method to take a snapshot of this BST, in constant time.
+     * The snapshot and this BST are thereafter independent: updates to either are not seen by the other.
+     *
+     * @return a new PersistentBST which shares the current version of this BST.
+     */
+    public PersistentBST<Key, Value> snapshot() {
+        return new PersistentBST<>(random, root.get());
+    }
+
+    @Override
+    public Boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        List<Key> ks = new ArrayList<>(map.keySet());
+        Collections.shuffle(ks);
+        for (Key k : ks) put(k, map.get(k));
+    }
+
+    @Override
+    public int size() {
+        return size(root.get());
+    }
+
+    @Override
+    public Value get(Key key) {
+        Node<Key, Value> node = root.get();
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf < 0) node = node.smaller;
+            else if (cf > 0) node = node.larger;
+            else return node.value;
+        }
+        return null;
+    }
+
+    /**
+     * Method to put the key/value pair into this BST, by copying the path from the root to the (new or replaced) node.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key.
+     * @return the previous value associated with key, or null if the key was not present.
+     */
+    @Override
+    public Value put(Key key, Value value) {
+        while (true) {
+            Node<Key, Value> top = root.get();
+            Node<Key, Value>[] path = newPath(top);
+            int n = 0;
+            Node<Key, Value> node = top;
+            while (node != null) {
+                int cf = key.compareTo(node.key);
+                if (cf == 0) break;
+                path[n++] = node;
+                node = cf < 0 ? node.smaller : node.larger;
+            }
+            Node<Key, Value> replacement = node != null ? new Node<>(key, value, node.smaller, node.larger) : new Node<>(key, value, null, null);
+            if (root.compareAndSet(top, copyPath(path, n, key, replacement)))
+                return node != null ? node.value : null;
+        }
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        Set<Key> result = new LinkedHashSet<>();
+        inOrderTraverse((k, v) -> {
+            result.add(k);
+            return null;
+        });
+        return result;
+    }
+
+    /**
+     * Method to delete the given key using Hibbard deletion, i.e. a node with two children is replaced by its successor.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void delete(Key key) {
+        delete(key, true);
+    }
+
+    /**
+     * Method to delete the given key, replacing a node with two children by either its successor or its predecessor.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void deleteRandom(Key key) {
+        delete(key, random.nextBoolean());
+    }
+
+    @Override
+    public void deleteMin() {
+        while (true) {
+            Node<Key, Value> top = root.get();
+            if (top == null) return;
+            if (root.compareAndSet(top, withoutMin(top, newPath(top)))) return;
+        }
+    }
+
+    @Override
+    public void deleteMax() {
+        while (true) {
+            Node<Key, Value> top = root.get();
+            if (top == null) return;
+            if (root.compareAndSet(top, withoutMax(top, newPath(top)))) return;
+        }
+    }
+
+    /**
+     * Method to traverse the version of this BST which is current when the method is called.
+     *
+     * @param f the function to apply to each key and value, in key order.
+     */
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        for (Map.Entry<Key, Value> entry : this) f.apply(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Method to yield a lazy iterator over the entries of the version of this BST which is current when the method is
+     * called. Subsequent updates do not affect the iterator (nor does it lock anything).
+     *
+     * @return an iterator over the entries of this BST, in key order.
+     */
+    @Override
+    public Iterator<Map.Entry<Key, Value>> iterator() {
+        Deque<Node<Key, Value>> stack = new ArrayDeque<>();
+        for (Node<Key, Value> node = root.get(); node != null; node = node.smaller) stack.push(node);
+        return new Iterator<Map.Entry<Key, Value>>() {
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            public Map.Entry<Key, Value> next() {
+                if (stack.isEmpty()) throw new NoSuchElementException();
+                Node<Key, Value> result = stack.pop();
+                for (Node<Key, Value> node = result.larger; node != null; node = node.smaller) stack.push(node);
+                return new AbstractMap.SimpleImmutableEntry<>(result.key, result.value);
+            }
+        };
+    }
+
+    /**
+     * Yield the total depth of this BST. If it is empty, then depth will be 0.
+     * Since each node carries its height, this takes constant time.
+     *
+     * @return the total number of levels in this BST.
+     */
+    @Override
+    public int depth() {
+        return height(root.get());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PersistentBST{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    private PersistentBST(Random random, Node<Key, Value> root) {
+        this.random = random;
+        this.root = new AtomicReference<>(root);
+    }
+
+    private void delete(Key key, boolean successor) {
+        while (true) {
+            Node<Key, Value> top = root.get();
+            Node<Key, Value>[] path = newPath(top);
+            int n = 0;
+            Node<Key, Value> x = top;
+            while (x != null) {
+                int cf = key.compareTo(x.key);
+                if (cf == 0) break;
+                path[n++] = x;
+                x = cf < 0 ? x.smaller : x.larger;
+            }
+            if (x == null) return;
+            Node<Key, Value> replacement;
+            if (x.larger == null) replacement = x.smaller;
+            else if (x.smaller == null) replacement = x.larger;
+            else if (successor) {
+                Node<Key, Value> t = x.larger;
+                while (t.smaller != null) t = t.smaller;
+                replacement = new Node<>(t.key, t.value, x.smaller, withoutMin(x.larger, path));
+            } else {
+                Node<Key, Value> t = x.smaller;
+                while (t.larger != null) t = t.larger;
+                replacement = new Node<>(t.key, t.value, withoutMax(x.smaller, path), x.larger);
+            }
+            // NOTE: withoutMin and withoutMax use path as scratch space beyond the first n elements, which are preserved.
+            if (root.compareAndSet(top, copyPath(path, n, key, replacement))) return;
+        }
+    }
+
+    /**
+     * Method to copy the n nodes of path (the ancestors, from the root downwards, of the position of key),
+     * from the bottom up, substituting replacement for the subtree at the position of key.
+     *
+     * @param path        the ancestors of the position of key.
+     * @param n           the number of ancestors.
+     * @param key         the key whose position is being replaced.
+     * @param replacement the new subtree at the position of key (may be null).
+     * @return the new root.
+     */
+    private Node<Key, Value> copyPath(Node<Key, Value>[] path, int n, Key key, Node<Key, Value> replacement) {
+        Node<Key, Value> result = replacement;
+        for (int i = n - 1; i >= 0; i--) {
+            Node<Key, Value> node = path[i];
+            result = key.compareTo(node.key) < 0 ? new Node<>(node.key, node.value, result, node.larger) : new Node<>(node.key, node.value, node.smaller, result);
+        }
+        return result;
+    }
+
+    /**
+     * Method to yield a copy of the (non-empty) subtree rooted at node, without its minimum.
+     * Only the nodes on the smaller spine are copied.
+     *
+     * @param node    the root of a subtree.
+     * @param scratch space for at least height(node) nodes at the end of the array
+     *                (the spine is recorded from the end of the array backwards).
+     * @return the root of the new subtree.
+     */
+    private Node<Key, Value> withoutMin(Node<Key, Value> node, Node<Key, Value>[] scratch) {
+        int i = scratch.length;
+        while (node.smaller != null) {
+            scratch[--i] = node;
+            node = node.smaller;
+        }
+        Node<Key, Value> result = node.larger;
+        for (; i < scratch.length; i++) result = new Node<>(scratch[i].key, scratch[i].value, result, scratch[i].larger);
+        return result;
+    }
+
+    /**
+     * Method to yield a copy of the (non-empty) subtree rooted at node, without its maximum.
+     * This is the mirror image of withoutMin.
+     */
+    private Node<Key, Value> withoutMax(Node<Key, Value> node, Node<Key, Value>[] scratch) {
+        int i = scratch.length;
+        while (node.larger != null) {
+            scratch[--i] = node;
+            node = node.larger;
+        }
+        Node<Key, Value> result = node.smaller;
+        for (; i < scratch.length; i++) result = new Node<>(scratch[i].key, scratch[i].value, scratch[i].smaller, result);
+        return result;
+    }
+
+    /**
+     * Method to allocate an array which can hold every node on any path from top to a leaf.
+     * For a deletion, the ancestors of the deleted node and the spine below it (down to its successor or predecessor)
+     * together form one such path, so they fit, one from each end.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<Key, Value>[] newPath(Node<Key, Value> top) {
+        return (Node<Key, Value>[]) new Node[height(top) + 1];
+    }
+
+    private static int size(Node<?, ?> x) {
+        return x == null ? 0 : x.count;
+    }
+
+    private static int height(Node<?, ?> x) {
+        return x == null ? 0 : x.height;
+    }
+
+    /**
+     * An immutable node, which knows the count and height of its subtree.
+     * It is a static class so that a node does not refer to the handle which created it.
+     */
+    static class Node<Key, Value> {
+        Node(Key key, Value value, Node<Key, Value> smaller, Node<Key, Value> larger) {
+            this.key = key;
+            this.value = value;
+            this.smaller = smaller;
+            this.larger = larger;
+            this.count = 1 + size(smaller) + size(larger);
+            this.height = 1 + Math.max(height(smaller), height(larger));
+        }
+
+        final Key key;
+        final Value value;
+        final Node<Key, Value> smaller;
+        final Node<Key, Value> larger;
+        final int count;
+        final int height;
+
+        @Override
+        public String toString() {
+            return "Node: " + key + ":" + value;
+        }
+    }
+
+    // The current version of this BST.
+    private final AtomicReference<Node<Key, Value>> root;
+
+    // Used by deleteRandom to choose between successor and predecessor.
+    private final Random random;
+}
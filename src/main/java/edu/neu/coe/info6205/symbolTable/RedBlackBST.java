@@ -0,0 +1,288 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Left-leaning red-black BST (after Sedgewick), implementing the same BstDetail contract as BSTSimple.
+ * <p>
+ * The tree is kept in 1-1 correspondence with a 2-3 tree, so that its depth is never more than 2 lg N
+ * no matter what sequence of puts and deletes has been applied.
+ * Because of this bound, the recursive formulation is perfectly safe here (unlike BSTSimple).
+ * <p>
+ * Deletion does not need a choice between successor and predecessor since rebalancing takes care of the shape of the tree:
+ * deleteRandom is therefore simply an alias for delete.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class RedBlackBST<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
+
+    @Override
+    public Boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        for (Map.Entry<Key, Value> entry : map.entrySet()) put(entry.getKey(), entry.getValue());
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        doTraverse(root, f);
+    }
+
+    @Override
+    public Value get(Key key) {
+        Node node = getNode(key);
+        return node != null ? node.value : null;
+    }
+
+    @Override
+    public Value put(Key key, Value value) {
+        previous = null;
+        root = put(root, key, value);
+        root.red = false;
+        return previous;
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        Set<Key> result = new LinkedHashSet<>();
+        inOrderTraverse((k, v) -> {
+            result.add(k);
+            return null;
+        });
+        return result;
+    }
+
+    @Override
+    public void delete(Key key) {
+        // Test for the node itself, not its value: a key may have been put with a null value.
+        if (getNode(key) == null) return;
+        if (!isRed(root.smaller) && !isRed(root.larger)) root.red = true;
+        root = delete(root, key);
+        if (root != null) root.red = false;
+    }
+
+    /**
+     * Since this tree is self-balancing, there is no need to choose randomly between successor and predecessor.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void deleteRandom(Key key) {
+        delete(key);
+    }
+
+    @Override
+    public void deleteMin() {
+        if (root == null) return;
+        if (!isRed(root.smaller) && !isRed(root.larger)) root.red = true;
+        root = deleteMin(root);
+        if (root != null) root.red = false;
+    }
+
+    @Override
+    public void deleteMax() {
+        if (root == null) return;
+        if (!isRed(root.smaller) && !isRed(root.larger)) root.red = true;
+        root = deleteMax(root);
+        if (root != null) root.red = false;
+    }
+
+    /**
+     * Yield the total depth of this BST. If root is null, then depth will be 0.
+     *
+     * @return the total number of levels in this BST.
+     */
+    @Override
+    public int depth() {
+        return depth(root);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RedBlackBST{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    private Node getNode(Key key) {
+        Node node = root;
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf < 0) node = node.smaller;
+            else if (cf > 0) node = node.larger;
+            else return node;
+        }
+        return null;
+    }
+
+    private Node put(Node h, Key key, Value value) {
+        if (h == null) return new Node(key, value);
+        int cf = key.compareTo(h.key);
+        if (cf < 0) h.smaller = put(h.smaller, key, value);
+        else if (cf > 0) h.larger = put(h.larger, key, value);
+        else {
+            previous = h.value;
+            h.value = value;
+        }
+        return fixUp(h);
+    }
+
+    private Node delete(Node h, Key key) {
+        if (key.compareTo(h.key) < 0) {
+            if (!isRed(h.smaller) && !isRed(h.smaller.smaller)) h = moveRedSmaller(h);
+            h.smaller = delete(h.smaller, key);
+        } else {
+            if (isRed(h.smaller)) h = rotateLarger(h);
+            if (key.compareTo(h.key) == 0 && h.larger == null) return null;
+            if (!isRed(h.larger) && !isRed(h.larger.smaller)) h = moveRedLarger(h);
+            if (key.compareTo(h.key) == 0) {
+                Node x = min(h.larger);
+                h.key = x.key;
+                h.value = x.value;
+                h.larger = deleteMin(h.larger);
+            } else h.larger = delete(h.larger, key);
+        }
+        return fixUp(h);
+    }
+
+    private Node deleteMin(Node h) {
+        if (h.smaller == null) return null;
+        if (!isRed(h.smaller) && !isRed(h.smaller.smaller)) h = moveRedSmaller(h);
+        h.smaller = deleteMin(h.smaller);
+        return fixUp(h);
+    }
+
+    private Node deleteMax(Node h) {
+        if (isRed(h.smaller)) h = rotateLarger(h);
+        if (h.larger == null) return null;
+        if (!isRed(h.larger) && !isRed(h.larger.smaller)) h = moveRedLarger(h);
+        h.larger = deleteMax(h.larger);
+        return fixUp(h);
+    }
+
+    private Node rotateSmaller(Node h) {
+        Node x = h.larger;
+        h.larger = x.smaller;
+        x.smaller = h;
+        x.red = h.red;
+        h.red = true;
+        x.count = h.count;
+        h.count = 1 + size(h.smaller) + size(h.larger);
+        return x;
+    }
+
+    private Node rotateLarger(Node h) {
+        Node x = h.smaller;
+        h.smaller = x.larger;
+        x.larger = h;
+        x.red = h.red;
+        h.red = true;
+        x.count = h.count;
+        h.count = 1 + size(h.smaller) + size(h.larger);
+        return x;
+    }
+
+    private void flipColors(Node h) {
+        h.red = !h.red;
+        h.smaller.red = !h.smaller.red;
+        h.larger.red = !h.larger.red;
+    }
+
+    /**
+     * Assuming that h is red and both h.smaller and h.smaller.smaller are black, make h.smaller or one of its children red.
+     */
+    private Node moveRedSmaller(Node h) {
+        flipColors(h);
+        if (isRed(h.larger.smaller)) {
+            h.larger = rotateLarger(h.larger);
+            h = rotateSmaller(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    /**
+     * Assuming that h is red and both h.larger and h.larger.smaller are black, make h.larger or one of its children red.
+     */
+    private Node moveRedLarger(Node h) {
+        flipColors(h);
+        if (isRed(h.smaller.smaller)) {
+            h = rotateLarger(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    /**
+     * Restore the left-leaning red-black invariants at h (on the way back up the tree) and fix its count.
+     */
+    private Node fixUp(Node h) {
+        if (isRed(h.larger) && !isRed(h.smaller)) h = rotateSmaller(h);
+        if (isRed(h.smaller) && isRed(h.smaller.smaller)) h = rotateLarger(h);
+        if (isRed(h.smaller) && isRed(h.larger)) flipColors(h);
+        h.count = 1 + size(h.smaller) + size(h.larger);
+        return h;
+    }
+
+    private Node min(Node x) {
+        while (x.smaller != null) x = x.smaller;
+        return x;
+    }
+
+    private boolean isRed(Node x) {
+        return x != null && x.red;
+    }
+
+    private int size(Node x) {
+        return x == null ? 0 : x.count;
+    }
+
+    private int depth(Node node) {
+        if (node == null) return 0;
+        return 1 + Math.max(depth(node.smaller), depth(node.larger));
+    }
+
+    private void doTraverse(Node node, BiFunction<Key, Value, Void> f) {
+        if (node == null) return;
+        doTraverse(node.smaller, f);
+        f.apply(node.key, node.value);
+        doTraverse(node.larger, f);
+    }
+
+    class Node {
+        Node(Key key, Value value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        Key key;
+        Value value;
+        Node smaller = null;
+        Node larger = null;
+        int count = 1;
+        boolean red = true;
+
+        @Override
+        public String toString() {
+            return "Node: " + key + ":" + value + (red ? " (red)" : "");
+        }
+    }
+
+    Node root = null;
+
+    // The previous value of the key most recently put (since the recursive put cannot return it directly).
+    private Value previous;
+}
@@ -0,0 +1,296 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Splay tree (Sleator and Tarjan): a self-adjusting BST in which every access (get, put or delete) splays the key
+ * concerned (or, if it is absent, the last node on its search path) to the root.
+ * <p>
+ * Splaying roughly halves the depth of every node on the access path, so any sequence of M operations costs
+ * O(M log N) in total, even though a single operation may take O(N). More to the point, a key which has just been
+ * accessed is found at the root, and the keys which are accessed often stay near the top: with a skewed (e.g. Zipfian)
+ * workload, the hottest keys are found in a handful of comparisons, whereas in BSTSimple they pay the full depth.
+ * <p>
+ * Splaying is top-down (in a single pass, with no parent links and no recursion), using a reusable header node to
+ * assemble the left and right trees, so that nothing is allocated other than the node for a new key.
+ * A deleted key is splayed to the root and then replaced by its successor (delete) or by either its successor or its
+ * predecessor (deleteRandom), which is itself splayed to the top of its subtree.
+ * Since splay trees can become very deep (for example, after keys are inserted in order), depth and traversal use an
+ * explicit stack.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class SplayTree<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
+
+    public SplayTree(Random random) {
+        this.random = random;
+    }
+
+    public SplayTree() {
+        this(new Random());
+    }
+
+    @Override
+    public Boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        List<Key> ks = new ArrayList<>(map.keySet());
+        Collections.shuffle(ks, random);
+        for (Key k : ks) put(k, map.get(k));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Value get(Key key) {
+        if (root == null) return null;
+        root = splay(root, key);
+        return found ? root.value : null;
+    }
+
+    /**
+     * Method to put the key/value pair into this tree: the new (or updated) node becomes the root.
+     *
+     * @param key   the key to insert.
+     * @param value the value to associate with the key.
+     * @return the previous value associated with key, or null if the key was not present.
+     */
+    @Override
+    public Value put(Key key, Value value) {
+        if (root == null) {
+            root = new Node(key, value);
+            size++;
+            return null;
+        }
+        root = splay(root, key);
+        if (found) {
+            Value result = root.value;
+            root.value = value;
+            return result;
+        }
+        // The root is now the predecessor or successor of key, so it and one of its subtrees go on one side of the new node.
+        Node node = new Node(key, value);
+        if (key.compareTo(root.key) < 0) {
+            node.smaller = root.smaller;
+            node.larger = root;
+            root.smaller = null;
+        } else {
+            node.larger = root.larger;
+            node.smaller = root;
+            root.larger = null;
+        }
+        root = node;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        Set<Key> result = new LinkedHashSet<>();
+        inOrderTraverse((k, v) -> {
+            result.add(k);
+            return null;
+        });
+        return result;
+    }
+
+    /**
+     * Method to delete the given key, which is replaced by its successor.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void delete(Key key) {
+        delete(key, true);
+    }
+
+    /**
+     * Method to delete the given key, which is replaced by either its successor or its predecessor, at random.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void deleteRandom(Key key) {
+        delete(key, random.nextBoolean());
+    }
+
+    @Override
+    public void deleteMin() {
+        if (root == null) return;
+        Node node = root;
+        while (node.smaller != null) node = node.smaller;
+        root = splay(root, node.key).larger;
+        size--;
+    }
+
+    @Override
+    public void deleteMax() {
+        if (root == null) return;
+        Node node = root;
+        while (node.larger != null) node = node.larger;
+        root = splay(root, node.key).smaller;
+        size--;
+    }
+
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        Deque<Node> stack = new ArrayDeque<>();
+        for (Node node = root; node != null; node = node.smaller) stack.push(node);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            f.apply(node.key, node.value);
+            for (Node x = node.larger; x != null; x = x.smaller) stack.push(x);
+        }
+    }
+
+    /**
+     * Yield the total depth of this tree. If it is empty, then depth will be 0.
+     * Note that this does not splay anything.
+     *
+     * @return the total number of levels in this tree.
+     */
+    @Override
+    public int depth() {
+        int result = 0;
+        Deque<Node> nodes = new ArrayDeque<>();
+        Deque<Integer> levels = new ArrayDeque<>();
+        if (root != null) {
+            nodes.push(root);
+            levels.push(1);
+        }
+        while (!nodes.isEmpty()) {
+            Node node = nodes.pop();
+            int level = levels.pop();
+            result = Math.max(result, level);
+            if (node.smaller != null) {
+                nodes.push(node.smaller);
+                levels.push(level + 1);
+            }
+            if (node.larger != null) {
+                nodes.push(node.larger);
+                levels.push(level + 1);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SplayTree{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    private void delete(Key key, boolean successor) {
+        if (root == null) return;
+        root = splay(root, key);
+        if (!found) return;
+        if (root.smaller == null) root = root.larger;
+        else if (root.larger == null) root = root.smaller;
+        else if (successor) {
+            // Splaying key (which is less than every key in the larger subtree) brings the successor to its top.
+            Node x = splay(root.larger, key);
+            x.smaller = root.smaller;
+            root = x;
+        } else {
+            Node x = splay(root.smaller, key);
+            x.larger = root.larger;
+            root = x;
+        }
+        size--;
+    }
+
+    /**
+     * Method to splay key in the (non-empty) subtree t, top-down: the node for key (if present), or else the last node
+     * on its search path, becomes the root of the subtree. Sets found according to whether key is present.
+     * <p>
+     * As we go down, nodes which are greater than key are linked (in order) onto the smaller side of the right tree,
+     * and nodes which are less than key onto the larger side of the left tree; when two steps go the same way,
+     * the first node is rotated before it is linked (zig-zig). Finally the left and right trees become the children
+     * of the new root. The left tree is assembled in header.larger and the right tree in header.smaller.
+     *
+     * @param t   the root of the subtree.
+     * @param key the key.
+     * @return the new root of the subtree.
+     */
+    private Node splay(Node t, Key key) {
+        Node left = header, right = header;
+        found = false;
+        while (true) {
+            int cf = key.compareTo(t.key);
+            if (cf < 0) {
+                if (t.smaller == null) break;
+                if (key.compareTo(t.smaller.key) < 0) {
+                    Node y = t.smaller;
+                    t.smaller = y.larger;
+                    y.larger = t;
+                    t = y;
+                    if (t.smaller == null) break;
+                }
+                right.smaller = t;
+                right = t;
+                t = t.smaller;
+            } else if (cf > 0) {
+                if (t.larger == null) break;
+                if (key.compareTo(t.larger.key) > 0) {
+                    Node y = t.larger;
+                    t.larger = y.smaller;
+                    y.smaller = t;
+                    t = y;
+                    if (t.larger == null) break;
+                }
+                left.larger = t;
+                left = t;
+                t = t.larger;
+            } else {
+                found = true;
+                break;
+            }
+        }
+        left.larger = t.smaller;
+        right.smaller = t.larger;
+        t.smaller = header.larger;
+        t.larger = header.smaller;
+        header.smaller = header.larger = null;
+        return t;
+    }
+
+    class Node {
+        Node(Key key, Value value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        final Key key;
+        Value value;
+        Node smaller = null;
+        Node larger = null;
+
+        @Override
+        public String toString() {
+            return "Node: " + key + ":" + value;
+        }
+    }
+
+    Node root = null;
+
+    private int size = 0;
+
+    // Used by deleteRandom to choose between successor and predecessor, and by putAll to shuffle the keys.
+    private final Random random;
+
+    // The node on which splay assembles its left and right trees (it has no key), and whether the last splay found its key.
+    private final Node header = new Node(null, null);
+    private boolean found;
+}
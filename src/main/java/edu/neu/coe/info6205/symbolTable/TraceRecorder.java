@@ -0,0 +1,210 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import edu.neu.coe.info6205.balsearchtree.FixedWidth;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Decorator for a BstDetail which records every operation applied to it (by way of this object) in a binary trace file,
+ * so that exactly the same workload can later be replayed, by a TraceReplayer, into any BstDetail.
+ * <p>
+ * The file begins with a header of HEADER_LENGTH bytes (the magic number and the key and value widths), followed by one
+ * record per operation, each of the same width: a one-byte op code, then the key and then the value, each encoded by its
+ * FixedWidth codec. A field which means nothing for the operation (the value of a delete, or the key of deleteMin) is
+ * filled with zeros. So a trace of N operations occupies HEADER_LENGTH + N * (1 + key width + value width) bytes.
+ * <p>
+ * contains is recorded as a get. putAll is recorded as the puts of its entries, in random order (as BSTSimple.putAll
+ * applies them), and those puts are applied to the target one by one, so that replaying the trace reproduces the same
+ * tree. Records are buffered and written in large blocks; close (or flush) writes out any which remain.
+ * This class is not thread-safe. A value may not be null.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class TraceRecorder<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value>, Closeable {
+
+    /**
+     * Constructor to create (or truncate) a trace file which records the operations applied to target.
+     *
+     * @param file   the trace file.
+     * @param target the BST to which each operation is applied.
+     * @param keys   the codec for keys.
+     * @param values the codec for values.
+     * @param random the source of randomness used to order the entries of putAll.
+     * @throws IOException if the file cannot be created.
+     */
+    public TraceRecorder(Path file, BstDetail<Key, Value> target, FixedWidth<Key> keys, FixedWidth<Value> values, Random random) throws IOException {
+        this.target = target;
+        this.keys = keys;
+        this.values = values;
+        this.random = random;
+        recordWidth = 1 + keys.width() + values.width();
+        buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE / recordWidth, 1) * recordWidth);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC).putInt(keys.width()).putInt(values.width()).putInt(0);
+        ((Buffer) header).flip();
+        while (header.hasRemaining()) channel.write(header);
+    }
+
+    public TraceRecorder(Path file, BstDetail<Key, Value> target, FixedWidth<Key> keys, FixedWidth<Value> values) throws IOException {
+        this(file, target, keys, values, new Random());
+    }
+
+    @Override
+    public Value get(Key key) {
+        record(GET, key, null);
+        return target.get(key);
+    }
+
+    @Override
+    public Boolean contains(Key key) {
+        record(GET, key, null);
+        return target.contains(key);
+    }
+
+    @Override
+    public Value put(Key key, Value value) {
+        record(PUT, key, value);
+        return target.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        List<Key> ks = new ArrayList<>(map.keySet());
+        Collections.shuffle(ks, random);
+        for (Key k : ks) put(k, map.get(k));
+    }
+
+    @Override
+    public void delete(Key key) {
+        record(DELETE, key, null);
+        target.delete(key);
+    }
+
+    @Override
+    public void deleteRandom(Key key) {
+        record(DELETE_RANDOM, key, null);
+        target.deleteRandom(key);
+    }
+
+    @Override
+    public void deleteMin() {
+        record(DELETE_MIN, null, null);
+        target.deleteMin();
+    }
+
+    @Override
+    public void deleteMax() {
+        record(DELETE_MAX, null, null);
+        target.deleteMax();
+    }
+
+    @Override
+    public int size() {
+        return target.size();
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        return target.keySet();
+    }
+
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        target.inOrderTraverse(f);
+    }
+
+    @Override
+    public int depth() {
+        return target.depth();
+    }
+
+    /**
+     * @return the number of operations recorded so far.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Method to write any buffered records to the trace file.
+     */
+    public void flush() {
+        ((Buffer) buffer).limit(position);
+        ((Buffer) buffer).position(0);
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ((Buffer) buffer).clear();
+        position = 0;
+    }
+
+    /**
+     * Method to flush and close the trace file. The target is unaffected.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "TraceRecorder{" + records + " records, target: " + target.getClass().getSimpleName() + "}";
+    }
+
+    private void record(byte op, Key key, Value value) {
+        if (position == buffer.capacity()) flush();
+        buffer.put(position, op);
+        int offset = position + 1;
+        if (key != null) keys.write(buffer, offset, key);
+        else zero(offset, keys.width());
+        offset += keys.width();
+        if (value != null) values.write(buffer, offset, value);
+        else zero(offset, values.width());
+        position += recordWidth;
+        records++;
+    }
+
+    private void zero(int offset, int width) {
+        for (int i = 0; i < width; i++) buffer.put(offset + i, (byte) 0);
+    }
+
+    // The op codes.
+    static final byte GET = 0;
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final byte DELETE_RANDOM = 3;
+    static final byte DELETE_MIN = 4;
+    static final byte DELETE_MAX = 5;
+
+    // The header: MAGIC, the key width and the value width (and a spare int), so that records start on an 8-byte boundary.
+    static final int MAGIC = 0x54524345;
+    static final int HEADER_LENGTH = 16;
+
+    // The (approximate) size of the buffer in which records are assembled.
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final BstDetail<Key, Value> target;
+    private final FixedWidth<Key> keys;
+    private final FixedWidth<Value> values;
+    private final Random random;
+    private final int recordWidth;
+    private final ByteBuffer buffer;
+    private final FileChannel channel;
+    // The offset in buffer at which the next record goes.
+    private int position = 0;
+    private long records = 0;
+}
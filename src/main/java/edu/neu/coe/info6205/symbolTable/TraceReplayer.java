@@ -0,0 +1,139 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import edu.neu.coe.info6205.balsearchtree.FixedWidth;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Replayer for a trace file written by TraceRecorder: each recorded operation is applied, in order, to a BstDetail.
+ * <p>
+ * The file is mapped (read-only, with FileChannel.map) in windows of up to 1 GiB, each a whole number of records,
+ * and every record is decoded where it lies in the mapping, by the key and value codecs: there is no parsing, and
+ * no object is allocated per record other than the keys and values themselves (which the target's interface requires).
+ * Thus a trace of hundreds of millions of operations can be streamed through at the speed of the target.
+ * <p>
+ * The same trace may be replayed any number of times, into different targets, for example to compare Hibbard deletion
+ * with random deletion (see replay(BstDetail, BiConsumer)) or one kind of tree with another, on an identical workload.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class TraceReplayer<Key extends Comparable<Key>, Value> implements Closeable {
+
+    /**
+     * Constructor to open a trace file.
+     *
+     * @param file   the trace file.
+     * @param keys   the codec for keys (which must be the one used to record the trace).
+     * @param values the codec for values (which must be the one used to record the trace).
+     * @throws IOException if the file cannot be opened, or is not a trace with the same key and value widths.
+     */
+    public TraceReplayer(Path file, FixedWidth<Key> keys, FixedWidth<Value> values) throws IOException {
+        this(file, keys, values, 1 << 30);
+    }
+
+    TraceReplayer(Path file, FixedWidth<Key> keys, FixedWidth<Value> values, int maxWindow) throws IOException {
+        this.keys = keys;
+        this.values = values;
+        keyWidth = keys.width();
+        recordWidth = 1 + keyWidth + values.width();
+        window = (long) Math.max(maxWindow / recordWidth, 1) * recordWidth;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), TraceRecorder.HEADER_LENGTH));
+            if (header.capacity() < TraceRecorder.HEADER_LENGTH || header.getInt(0) != TraceRecorder.MAGIC)
+                throw new IOException("TraceReplayer: not a trace file: " + file);
+            if (header.getInt(4) != keyWidth || header.getInt(8) != values.width())
+                throw new IOException("TraceReplayer: trace has key and value widths " + header.getInt(4) + " and " + header.getInt(8) + " but the codecs have " + keyWidth + " and " + values.width());
+            records = (channel.size() - TraceRecorder.HEADER_LENGTH) / recordWidth;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Method to apply every operation of the trace to target, exactly as recorded.
+     *
+     * @param target the BST.
+     * @return the number of gets which found a value.
+     * @throws IOException if the trace cannot be mapped.
+     */
+    public long replay(BstDetail<Key, Value> target) throws IOException {
+        return replay(target, null);
+    }
+
+    /**
+     * Method to apply every operation of the trace to target, except that each delete (whether recorded as delete or as
+     * deleteRandom) is performed by deleter, for example BstDetail::delete or BstDetail::deleteRandom.
+     *
+     * @param target  the BST.
+     * @param deleter the deletion method to be used on target, or null to use the recorded one.
+     * @return the number of gets which found a value.
+     * @throws IOException if the trace cannot be mapped.
+     */
+    public long replay(BstDetail<Key, Value> target, BiConsumer<BstDetail<Key, Value>, Key> deleter) throws IOException {
+        long hits = 0;
+        long end = TraceRecorder.HEADER_LENGTH + records * recordWidth;
+        for (long start = TraceRecorder.HEADER_LENGTH; start < end; start += window) {
+            int length = (int) Math.min(window, end - start);
+            MappedByteBuffer b = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            for (int offset = 0; offset < length; offset += recordWidth) {
+                byte op = b.get(offset);
+                switch (op) {
+                    case TraceRecorder.GET:
+                        if (target.get(keys.read(b, offset + 1)) != null) hits++;
+                        break;
+                    case TraceRecorder.PUT:
+                        target.put(keys.read(b, offset + 1), values.read(b, offset + 1 + keyWidth));
+                        break;
+                    case TraceRecorder.DELETE:
+                        if (deleter == null) target.delete(keys.read(b, offset + 1));
+                        else deleter.accept(target, keys.read(b, offset + 1));
+                        break;
+                    case TraceRecorder.DELETE_RANDOM:
+                        if (deleter == null) target.deleteRandom(keys.read(b, offset + 1));
+                        else deleter.accept(target, keys.read(b, offset + 1));
+                        break;
+                    case TraceRecorder.DELETE_MIN:
+                        target.deleteMin();
+                        break;
+                    case TraceRecorder.DELETE_MAX:
+                        target.deleteMax();
+                        break;
+                    default:
+                        throw new IOException("TraceReplayer: unknown op code " + op + " in record " + (start + offset - TraceRecorder.HEADER_LENGTH) / recordWidth);
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * @return the number of operations in the trace.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private final FixedWidth<Key> keys;
+    private final FixedWidth<Value> values;
+    private final int keyWidth;
+    private final int recordWidth;
+    // The number of bytes mapped at a time (a whole number of records).
+    private final long window;
+    private final FileChannel channel;
+    private final long records;
+}
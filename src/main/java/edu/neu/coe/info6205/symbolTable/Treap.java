@@ -0,0 +1,236 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Treap: a BST in which each node also carries a random priority, and the tree is kept in heap order by priority
+ * (no node has a higher priority than its parent).
+ * <p>
+ * The shape of a treap is that of a BST built by inserting its keys in random order, regardless of the actual
+ * sequence of puts and deletes, so its expected depth is O(log N).
+ * Deletion rotates the doomed node down (always promoting the child with the higher priority) until it is a leaf,
+ * and then simply removes it. There is therefore no choice to be made between successor and predecessor,
+ * and deleteRandom is an alias for delete.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class Treap<Key extends Comparable<Key>, Value> implements BstDetail<Key, Value> {
+
+    public Treap(Random random) {
+        this.random = random;
+    }
+
+    public Treap() {
+        this(new Random());
+    }
+
+    @Override
+    public Boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void putAll(Map<Key, Value> map) {
+        for (Map.Entry<Key, Value> entry : map.entrySet()) put(entry.getKey(), entry.getValue());
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public void inOrderTraverse(BiFunction<Key, Value, Void> f) {
+        doTraverse(root, f);
+    }
+
+    @Override
+    public Value get(Key key) {
+        Node node = root;
+        while (node != null) {
+            int cf = key.compareTo(node.key);
+            if (cf < 0) node = node.smaller;
+            else if (cf > 0) node = node.larger;
+            else return node.value;
+        }
+        return null;
+    }
+
+    @Override
+    public Value put(Key key, Value value) {
+        previous = null;
+        root = put(root, key, value);
+        return previous;
+    }
+
+    @Override
+    public Set<Key> keySet() {
+        Set<Key> result = new LinkedHashSet<>();
+        inOrderTraverse((k, v) -> {
+            result.add(k);
+            return null;
+        });
+        return result;
+    }
+
+    @Override
+    public void delete(Key key) {
+        root = delete(root, key);
+    }
+
+    /**
+     * Since the shape of a treap is determined by its priorities, there is no need to choose randomly between successor and predecessor.
+     *
+     * @param key the key to delete.
+     */
+    @Override
+    public void deleteRandom(Key key) {
+        delete(key);
+    }
+
+    @Override
+    public void deleteMin() {
+        if (root == null) return;
+        Node parent = null;
+        Node x = root;
+        while (x.smaller != null) {
+            x.count--;
+            parent = x;
+            x = x.smaller;
+        }
+        if (parent == null) root = x.larger;
+        else parent.smaller = x.larger;
+    }
+
+    @Override
+    public void deleteMax() {
+        if (root == null) return;
+        Node parent = null;
+        Node x = root;
+        while (x.larger != null) {
+            x.count--;
+            parent = x;
+            x = x.larger;
+        }
+        if (parent == null) root = x.smaller;
+        else parent.larger = x.smaller;
+    }
+
+    @Override
+    public int depth() {
+        return depth(root);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Treap{");
+        inOrderTraverse((k, v) -> {
+            sb.append(k).append(": ").append(v).append(", ");
+            return null;
+        });
+        return sb.toString().replaceAll(", $", "") + "}";
+    }
+
+    private Node put(Node h, Key key, Value value) {
+        if (h == null) return new Node(key, value, random.nextInt());
+        int cf = key.compareTo(h.key);
+        if (cf == 0) {
+            previous = h.value;
+            h.value = value;
+            return h;
+        }
+        if (cf < 0) {
+            h.smaller = put(h.smaller, key, value);
+            if (h.smaller.priority > h.priority) h = rotateLarger(h);
+        } else {
+            h.larger = put(h.larger, key, value);
+            if (h.larger.priority > h.priority) h = rotateSmaller(h);
+        }
+        h.count = 1 + size(h.smaller) + size(h.larger);
+        return h;
+    }
+
+    private Node delete(Node h, Key key) {
+        if (h == null) return null;
+        int cf = key.compareTo(h.key);
+        if (cf < 0) h.smaller = delete(h.smaller, key);
+        else if (cf > 0) h.larger = delete(h.larger, key);
+        else {
+            if (h.smaller == null) return h.larger;
+            if (h.larger == null) return h.smaller;
+            // Promote the child with the higher priority, which moves h down one level, and continue deleting it from there.
+            if (h.smaller.priority > h.larger.priority) {
+                h = rotateLarger(h);
+                h.larger = delete(h.larger, key);
+            } else {
+                h = rotateSmaller(h);
+                h.smaller = delete(h.smaller, key);
+            }
+        }
+        h.count = 1 + size(h.smaller) + size(h.larger);
+        return h;
+    }
+
+    private Node rotateSmaller(Node h) {
+        Node x = h.larger;
+        h.larger = x.smaller;
+        x.smaller = h;
+        x.count = h.count;
+        h.count = 1 + size(h.smaller) + size(h.larger);
+        return x;
+    }
+
+    private Node rotateLarger(Node h) {
+        Node x = h.smaller;
+        h.smaller = x.larger;
+        x.larger = h;
+        x.count = h.count;
+        h.count = 1 + size(h.smaller) + size(h.larger);
+        return x;
+    }
+
+    private int size(Node x) {
+        return x == null ? 0 : x.count;
+    }
+
+    private int depth(Node node) {
+        if (node == null) return 0;
+        return 1 + Math.max(depth(node.smaller), depth(node.larger));
+    }
+
+    private void doTraverse(Node node, BiFunction<Key, Value, Void> f) {
+        if (node == null) return;
+        doTraverse(node.smaller, f);
+        f.apply(node.key, node.value);
+        doTraverse(node.larger, f);
+    }
+
+    class Node {
+        Node(Key key, Value value, int priority) {
+            this.key = key;
+            this.value = value;
+            this.priority = priority;
+        }
+
+        final Key key;
+        Value value;
+        final int priority;
+        Node smaller = null;
+        Node larger = null;
+        int count = 1;
+
+        @Override
+        public String toString() {
+            return "Node: " + key + ":" + value + " (" + priority + ")";
+        }
+    }
+
+    Node root = null;
+
+    private final Random random;
+
+    // The previous value of the key most recently put (since the recursive put cannot return it directly).
+    private Value previous;
+}
@@ -1,17 +1,30 @@
 package edu.neu.coe.info6205.util;
 
+/**
+ * Running statistics (count, total, mean and standard deviation) of a property.
+ * Only the count and the sum of the samples, and the sum of the squares of their deviations from the mean, are kept
+ * (the latter updated by Welford's method, which unlike a plain sum of squares does not lose precision when the
+ * deviations are small), so that the memory used does not grow with the number of samples.
+ */
 public class Statistics {
 
+    /**
+     * @param property the name of the property.
+     * @param N        the expected number of samples. This is ignored, since the samples themselves are not kept, but it
+     *                 remains a parameter so that StatPack, and the existing callers of both classes (including the
+     *                 sorting helpers and their tests), need not change.
+     */
     public Statistics(String property, int N) {
         this.property = property;
-        doubles = new double[N];
     }
 
     public void add(double x) {
-        if (count >= doubles.length) resize(2 * doubles.length);
-        doubles[count] = x;
         count = count + 1;
-        stale();
+        sum += x;
+        double delta = x - runningMean;
+        runningMean += delta / count;
+        sumOfSquares += delta * (x - runningMean);
+        updated = true;
     }
 
     public int getCount() {
@@ -19,12 +32,7 @@ public class Statistics {
     }
 
     public double total() {
-        if (total == null) {
-            double sum = 0;
-            for (int i = 0; i < count; i++) sum += doubles[i];
-            total = sum;
-        }
-        return total;
+        return sum;
     }
 
     public double mean() {
@@ -32,13 +40,7 @@ public class Statistics {
     }
 
     public double stdDev() {
-        if (stdDev == null) {
-            double mean = mean();
-            double variance = 0;
-            for (int i = 0; i < count; i++) variance += (doubles[i] - mean) * (doubles[i] - mean);
-            stdDev = Math.sqrt(variance / count);
-        }
-        return stdDev;
+        return Math.sqrt(sumOfSquares / count);
     }
 
     @Override
@@ -55,23 +57,11 @@ public class Statistics {
         return sb.toString();
     }
 
-    private void resize(int n) {
-        double[] result = new double[n];
-        System.arraycopy(doubles, 0, result, 0, doubles.length);
-        doubles = result;
-    }
-
-    private void stale() {
-        total = null;
-        stdDev = null;
-        updated = true;
-    }
-
-    private Double total;
-    private Double stdDev;
-
     private int count = 0;
-    private double[] doubles;
+    private double sum = 0;
+    private double runningMean = 0;
+    // The sum of the squares of the deviations of the samples from their mean.
+    private double sumOfSquares = 0;
     private final String property;
     private boolean updated = false;
 
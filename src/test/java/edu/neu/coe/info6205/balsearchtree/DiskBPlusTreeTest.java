@@ -0,0 +1,114 @@
+package edu.neu.coe.info6205.balsearchtree;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DiskBPlusTreeTest {
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("DiskBPlusTreeTest", ".db");
+        Files.delete(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testPut() throws IOException {
+        try (DiskBPlusTree<String, Integer> tree = new DiskBPlusTree<>(file, FixedWidth.string(8), FixedWidth.INTEGER)) {
+            assertEquals(0, tree.size());
+            assertEquals(0, tree.depth());
+            assertNull(tree.put("Y", 42));
+            assertNull(tree.put("X", 99));
+            assertNull(tree.put("Z", 37));
+            assertEquals(Integer.valueOf(42), tree.put("Y", 43));
+            assertEquals(3, tree.size());
+            assertEquals(1, tree.depth());
+            assertEquals(Integer.valueOf(43), tree.get("Y"));
+            assertTrue(tree.contains("X"));
+            assertFalse(tree.contains("XX"));
+            assertEquals("DiskBPlusTree{X: 99, Y: 43, Z: 37}", tree.toString());
+        }
+    }
+
+    /**
+     * Small pages (so that there are many levels) and a cache of only two small chunks (so that chunks are evicted).
+     */
+    @Test
+    public void testMixedOperationsAndReopen() throws IOException {
+        Random random = new Random(0L);
+        TreeMap<Long, Integer> expected = new TreeMap<>();
+        try (DiskBPlusTree<Long, Integer> tree = new DiskBPlusTree<>(file, FixedWidth.LONG, FixedWidth.INTEGER, 96, 4, 2)) {
+            for (int i = 0; i < 30000; i++) {
+                long key = random.nextInt(5000);
+                switch (random.nextInt(6)) {
+                    case 0:
+                        tree.delete(key);
+                        expected.remove(key);
+                        break;
+                    case 1:
+                        tree.deleteMin();
+                        if (!expected.isEmpty()) expected.pollFirstEntry();
+                        break;
+                    case 2:
+                        tree.deleteMax();
+                        if (!expected.isEmpty()) expected.pollLastEntry();
+                        break;
+                    default:
+                        assertEquals(expected.put(key, i), tree.put(key, i));
+                }
+                assertEquals(expected.size(), tree.size());
+            }
+            assertTrue(tree.depth() > 3);
+            assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(tree.keySet()));
+        }
+        try (DiskBPlusTree<Long, Integer> tree = new DiskBPlusTree<>(file, FixedWidth.LONG, FixedWidth.INTEGER, 96, 4, 2)) {
+            assertEquals(expected.size(), tree.size());
+            for (long key = 0; key < 5000; key++) assertEquals(expected.get(key), tree.get(key));
+            for (long lo = -10; lo < 5010; lo += 97) {
+                List<Long> keys = new ArrayList<>();
+                Iterator<Long> iterator = tree.rangeIterator(lo, lo + 200);
+                while (iterator.hasNext()) keys.add(iterator.next());
+                assertEquals(new ArrayList<>(expected.subMap(lo, true, lo + 200, true).keySet()), keys);
+            }
+            List<Integer> values = new ArrayList<>();
+            assertEquals(expected.size(), tree.rangeTraverse(null, null, (k, v) -> {
+                values.add(v);
+                return null;
+            }));
+            assertEquals(new ArrayList<>(expected.values()), values);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReopenWithDifferentWidths() throws IOException {
+        new DiskBPlusTree<>(file, FixedWidth.LONG, FixedWidth.INTEGER).close();
+        new DiskBPlusTree<>(file, FixedWidth.INTEGER, FixedWidth.INTEGER).close();
+    }
+
+    @Test
+    public void testFixedWidthString() {
+        FixedWidth<String> codec = FixedWidth.string(4);
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(8);
+        codec.write(buffer, 2, "ab");
+        assertEquals("ab", codec.read(buffer, 2));
+        assertEquals(0, codec.compare(buffer, 2, "ab"));
+        assertTrue(codec.compare(buffer, 2, "abc") < 0);
+        assertTrue(codec.compare(buffer, 2, "a") > 0);
+        assertTrue(codec.compare(buffer, 2, "b") < 0);
+        assertTrue(codec.compare(buffer, 2, "abcde") < 0);
+    }
+
+    private Path file;
+}
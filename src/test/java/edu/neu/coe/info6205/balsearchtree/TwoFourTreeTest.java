@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2017. Phasmid Software
+ */
+
+package edu.neu.coe.info6205.balsearchtree;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TwoFourTreeTest {
+
+    @Test
+    public void testPut() {
+        TwoFourTree<String, Integer> tree = new TwoFourTree<>();
+        assertNull(tree.get("X"));
+        assertNull(tree.put("Y", 42));
+        assertNull(tree.put("X", 99));
+        assertNull(tree.put("Z", 37));
+        assertEquals(1, tree.depth());
+        assertNull(tree.put("W", 1));
+        assertEquals(2, tree.depth());
+        assertEquals(Integer.valueOf(42), tree.put("Y", 43));
+        assertEquals(4, tree.size());
+        assertEquals(Integer.valueOf(43), tree.get("Y"));
+        assertTrue(tree.contains("W"));
+        assertFalse(tree.contains("V"));
+        assertEquals("TwoFourTree{W: 1, X: 99, Y: 43, Z: 37}", tree.toString());
+    }
+
+    @Test
+    public void testMixedOperations() {
+        for (int order : new int[]{3, 4, 5, 16, 101}) {
+            Random random = new Random(order);
+            TwoFourTree<Integer, Integer> tree = new TwoFourTree<>(order);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            for (int i = 0; i < 30000; i++) {
+                int key = random.nextInt(3000);
+                switch (random.nextInt(6)) {
+                    case 0:
+                    case 1:
+                        tree.delete(key);
+                        expected.remove(key);
+                        break;
+                    case 2:
+                        if (random.nextBoolean()) {
+                            tree.deleteMin();
+                            if (!expected.isEmpty()) expected.pollFirstEntry();
+                        } else {
+                            tree.deleteMax();
+                            if (!expected.isEmpty()) expected.pollLastEntry();
+                        }
+                        break;
+                    default:
+                        assertEquals(expected.put(key, i), tree.put(key, i));
+                }
+                assertEquals(expected.size(), tree.size());
+            }
+            assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(tree.keySet()));
+            for (int key = 0; key < 3000; key++) assertEquals(expected.get(key), tree.get(key));
+            checkDepth(tree);
+            while (tree.size() > 0) {
+                Integer key = expected.firstKey() + random.nextInt(3000);
+                Integer floor = expected.floorKey(key);
+                tree.delete(floor);
+                expected.remove(floor);
+                assertEquals(expected.size(), tree.size());
+                checkDepth(tree);
+            }
+            assertEquals(0, tree.depth());
+        }
+    }
+
+    @Test
+    public void testRange() {
+        TwoFourTree<Integer, Integer> tree = new TwoFourTree<>(5);
+        for (int i = 0; i < 1000; i += 2) tree.put(i, i);
+        Iterator<Integer> keys = tree.rangeIterator(101, 120);
+        for (int i = 102; i <= 120; i += 2) assertEquals(Integer.valueOf(i), keys.next());
+        assertFalse(keys.hasNext());
+        List<Integer> visited = new ArrayList<>();
+        assertEquals(11, tree.rangeTraverse(100, 120, (k, v) -> {
+            visited.add(v);
+            return null;
+        }));
+        assertEquals(Integer.valueOf(100), visited.get(0));
+        assertFalse(tree.rangeIterator(999, null).hasNext());
+        assertEquals(Integer.valueOf(0), tree.rangeIterator(-5, 0).next());
+        for (int lo = -1; lo < 1001; lo += 7) {
+            int count = 0;
+            for (Iterator<Integer> it = tree.rangeIterator(lo, lo + 50); it.hasNext(); count++)
+                assertTrue(it.next() >= lo);
+            assertEquals(Math.max(0, Math.min(lo + 50, 998) / 2 - (Math.max(lo, 0) + 1) / 2 + 1), count);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOrder() {
+        new TwoFourTree<String, Integer>(2);
+    }
+
+    /**
+     * Check that the depth is within the bound guaranteed by the minimum occupancy of the nodes.
+     */
+    private void checkDepth(TwoFourTree<Integer, Integer> tree) {
+        int t = (tree.getOrder() + 1) / 2;
+        int n = tree.size();
+        double bound = n == 0 ? 0 : 1 + Math.log((n + 1) / 2.0) / Math.log(t);
+        assertTrue(tree.depth() <= bound + 1e-9);
+    }
+}
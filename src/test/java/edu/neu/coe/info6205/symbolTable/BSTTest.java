@@ -9,9 +9,10 @@ import edu.neu.coe.info6205.bqs.Queue_Elements;
 import edu.neu.coe.info6205.util.PrivateMethodTester;
 import org.junit.Test;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -108,6 +109,17 @@ public class BSTTest {
         assertEquals(3, bst.size());
     }
 
+    @Test
+    public void testInsert() throws Exception {
+        BSTSimple<String, Integer> bst = new BSTSimple<>();
+        assertTrue(bst.insert("X", null));
+        assertFalse(bst.insert("X", 42));
+        assertEquals(Integer.valueOf(42), bst.get("X"));
+        assertTrue(bst.insert("Y", 99));
+        assertEquals(Integer.valueOf(99), bst.put("Y", 37));
+        assertEquals(2, bst.size());
+    }
+
     @Test
     public void testPutAll() throws Exception {
         final Map<String, Integer> map = new HashMap<>();
@@ -309,4 +321,638 @@ public class BSTTest {
         //assertEquals("Z", queue.dequeue());
         assertTrue(queue.isEmpty());
     }
+
+    @Test
+    public void testSortedInputNoStackOverflow() {
+        final int n = 1 << 15;
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>();
+        for (int i = 0; i < n; i++) bst.put(i, i);
+        assertEquals(n, bst.size());
+        assertEquals(n, bst.depth());
+        assertEquals(n - 1, bst.depth(n - 1));
+        assertEquals(Integer.valueOf(n - 1), bst.get(n - 1));
+        bst.delete(n / 2);
+        bst.deleteRandom(n / 4);
+        bst.deleteMax();
+        bst.deleteMin();
+        assertEquals(n - 4, bst.size());
+        assertNull(bst.get(n - 1));
+        assertNull(bst.get(0));
+    }
+
+    @Test
+    public void testCountsAfterMixedOperations() {
+        Random random = new Random(0L);
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 10000; i++) {
+            int key = random.nextInt(1000);
+            switch (random.nextInt(4)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        checkCounts(bst.root);
+        for (Integer key : expected.keySet()) assertEquals(expected.get(key), bst.get(key));
+    }
+
+    private int checkCounts(BSTSimple.Node node) {
+        if (node == null) return 0;
+        int count = 1 + checkCounts(node.smaller) + checkCounts(node.larger);
+        assertEquals(count, node.count);
+        return count;
+    }
+
+    /**
+     * Method to apply a random mix of puts, gets and each kind of delete to bst (whose keys are from 0 thru keys-1),
+     * checking each against a TreeMap and then checking invariant.
+     */
+    private static void checkMixedOperations(BSTSimple<Integer, Integer> bst, Random random, int operations, int keys, Consumer<BSTSimple<Integer, Integer>> invariant) {
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> entry : bst) expected.put(entry.getKey(), entry.getValue());
+        for (int i = 0; i < operations; i++) {
+            int key = random.nextInt(keys);
+            // Puts are weighted so that the tree settles at about a third of the key range.
+            switch (random.nextInt(9)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                case 3:
+                    bst.deleteMax();
+                    if (!expected.isEmpty()) expected.pollLastEntry();
+                    break;
+                case 4:
+                    assertEquals(expected.get(key), bst.get(key));
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+            invariant.accept(bst);
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(bst.keySet()));
+    }
+
+    private static void checkHeights(BSTSimple<Integer, Integer> bst) {
+        assertEquals(checkHeights(bst.root), bst.depth());
+    }
+
+    private static int checkHeights(BSTSimple.Node node) {
+        if (node == null) return 0;
+        int height = 1 + Math.max(checkHeights(node.smaller), checkHeights(node.larger));
+        assertEquals(height, node.height);
+        return height;
+    }
+
+    @Test
+    public void testHeightsAfterMixedOperations() {
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(1L));
+        checkMixedOperations(bst, new Random(0L), 10000, 500, BSTTest::checkHeights);
+        checkCounts(bst.root);
+    }
+
+    @Test
+    public void testOrderStatistics() {
+        Random random = new Random(0L);
+        BstOrdered<Integer, Integer> bst = new BSTSimple<>(new Random(1L));
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(1000) * 2;
+            if (random.nextInt(3) == 0) {
+                bst.deleteRandom(key);
+                expected.remove(key);
+            } else {
+                bst.put(key, i);
+                expected.add(key);
+            }
+        }
+        List<Integer> keys = new ArrayList<>(expected);
+        for (int k = 0; k < keys.size(); k++) assertEquals(keys.get(k), bst.select(k));
+        for (int key = -1; key <= 2001; key++) {
+            assertEquals(expected.headSet(key).size(), bst.rank(key));
+            assertEquals(expected.floor(key), bst.floor(key));
+            assertEquals(expected.ceiling(key), bst.ceiling(key));
+        }
+        for (int j = 0; j < 100; j++) {
+            int lo = random.nextInt(2100) - 50;
+            int hi = lo + random.nextInt(500);
+            assertEquals(expected.subSet(lo, true, hi, true).size(), bst.rangeCount(lo, hi));
+            List<Integer> range = new ArrayList<>();
+            bst.rangeIterator(lo, hi).forEachRemaining(range::add);
+            assertEquals(new ArrayList<>(expected.subSet(lo, true, hi, true)), range);
+        }
+        assertEquals(0, bst.rangeCount(10, 5));
+        assertFalse(bst.rangeIterator(10, 5).hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectOutOfRange() {
+        BSTSimple<String, Integer> bst = new BSTSimple<>();
+        bst.put("X", 42);
+        bst.select(1);
+    }
+
+    @Test
+    public void testIteratorAndKeySet() {
+        BSTSimple<String, Integer> bst = new BSTSimple<>();
+        assertFalse(bst.iterator().hasNext());
+        assertTrue(bst.keySet().isEmpty());
+        bst.put("Y", 42);
+        bst.put("X", 99);
+        bst.put("Z", 37);
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : bst) keys.add(entry.getKey() + "=" + entry.getValue());
+        assertEquals(Arrays.asList("X=99", "Y=42", "Z=37"), keys);
+        assertEquals(Arrays.asList("X", "Y", "Z"), new ArrayList<>(bst.keySet()));
+        assertTrue(bst.keySet().contains("X"));
+        assertFalse(bst.keySet().contains("W"));
+        assertEquals(3, bst.keySet().size());
+    }
+
+    @Test
+    public void testSpliteratorSplitsExactly() {
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>();
+        Random random = new Random(0L);
+        for (int i = 0; i < 1000; i++) bst.put(random.nextInt(10000), i);
+        Spliterator<Map.Entry<Integer, Integer>> spliterator = bst.spliterator();
+        assertEquals(bst.size(), spliterator.getExactSizeIfKnown());
+        Spliterator<Map.Entry<Integer, Integer>> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(bst.size(), prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown());
+        List<Integer> keys = new ArrayList<>();
+        prefix.forEachRemaining(e -> keys.add(e.getKey()));
+        spliterator.forEachRemaining(e -> keys.add(e.getKey()));
+        assertEquals(new ArrayList<>(bst.keySet()), keys);
+    }
+
+    @Test
+    public void testStreams() {
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>();
+        Random random = new Random(0L);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(1000000);
+            bst.put(key, i);
+            expected.put(key, i);
+        }
+        long sum = expected.values().stream().mapToLong(x -> x).sum();
+        assertEquals(sum, bst.stream().mapToLong(Map.Entry::getValue).sum());
+        assertEquals(sum, bst.parallelStream().mapToLong(Map.Entry::getValue).sum());
+        assertEquals(new ArrayList<>(expected.keySet()), bst.parallelStream().map(Map.Entry::getKey).collect(Collectors.toList()));
+        assertEquals(10, bst.stream().limit(10).count());
+    }
+
+    @Test
+    public void testScapegoatSortedInput() {
+        final int n = 1 << 16;
+        final double alpha = 0.75;
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L), alpha);
+        for (int i = 0; i < n; i++) bst.put(i, i);
+        assertEquals(n, bst.size());
+        assertTrue(bst.depth() <= 1 + Math.log(n) / Math.log(1 / alpha));
+        assertTrue(bst.getRebuilds() > 0);
+        assertEquals(checkHeights(bst.root), bst.depth());
+        checkCounts(bst.root);
+    }
+
+    @Test
+    public void testScapegoatMixedOperations() {
+        final double alpha = 0.6;
+        Random random = new Random(0L);
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(1L), alpha);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(5)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        checkCounts(bst.root);
+        assertEquals(checkHeights(bst.root), bst.depth());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(bst.keySet()));
+        assertTrue(bst.depth() <= 2 + Math.log(bst.size()) / Math.log(1 / alpha));
+        assertTrue(bst.getRebuiltNodes() >= bst.getRebuilds());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testScapegoatInvalidAlpha() {
+        new BSTSimple<String, Integer>(new Random(), 0.4);
+    }
+
+    @Test
+    public void testPutAllSortedMap() {
+        final int n = 1000;
+        TreeMap<Integer, Integer> map = new TreeMap<>();
+        for (int i = 0; i < n; i++) map.put(i, i * i);
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>();
+        bst.putAll(map);
+        assertEquals(n, bst.size());
+        assertEquals(10, bst.depth());
+        assertEquals(checkHeights(bst.root), bst.depth());
+        checkCounts(bst.root);
+        assertEquals(Integer.valueOf(81), bst.get(9));
+    }
+
+    @Test
+    public void testPutAllSortedMerges() {
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>();
+        for (int i = 0; i < 100; i += 2) bst.put(i, -i);
+        TreeMap<Integer, Integer> map = new TreeMap<>();
+        for (int i = 50; i < 150; i++) map.put(i, i);
+        bst.putAllSorted(map.entrySet().iterator());
+        assertEquals(25 + 100, bst.size());
+        assertEquals(Integer.valueOf(-48), bst.get(48));
+        assertEquals(Integer.valueOf(50), bst.get(50));
+        assertEquals(Integer.valueOf(149), bst.get(149));
+        assertEquals(7, bst.depth());
+        checkCounts(bst.root);
+        assertEquals(checkHeights(bst.root), bst.depth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutAllSortedUnordered() {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+        entries.add(new AbstractMap.SimpleEntry<>("Y", 1));
+        entries.add(new AbstractMap.SimpleEntry<>("X", 2));
+        new BSTSimple<String, Integer>().putAllSorted(entries.iterator());
+    }
+
+    @Test
+    public void testPutAllSortedUnorderedLeavesTreeUnchanged() {
+        BSTSimple<String, Integer> bst = new BSTSimple<>(new Random(0L), 1.0, 16);
+        bst.put("A", 1);
+        bst.put("C", 3);
+        bst.delete("C");
+        assertEquals(1, bst.getPoolSize());
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+        entries.add(new AbstractMap.SimpleEntry<>("A", 10));
+        entries.add(new AbstractMap.SimpleEntry<>("B", 20));
+        entries.add(new AbstractMap.SimpleEntry<>("B", 30));
+        try {
+            bst.putAllSorted(entries.iterator());
+            fail("putAllSorted accepted keys out of order");
+        } catch (IllegalArgumentException e) {
+            // The value of A was not replaced and the pooled node was not taken for B.
+            assertEquals(Integer.valueOf(1), bst.get("A"));
+            assertNull(bst.get("B"));
+            assertEquals(1, bst.size());
+            assertEquals(1, bst.getPoolSize());
+        }
+    }
+
+    @Test
+    public void testSplitAndJoin() {
+        Random random = new Random(0L);
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(1L));
+        for (int i = 0; i < 1000; i++) bst.put(random.nextInt(2000), i);
+        int size = bst.size();
+        int rank = bst.rank(1000);
+        BSTSimple<Integer, Integer> upper = bst.split(1000);
+        assertEquals(rank, bst.size());
+        assertEquals(size - rank, upper.size());
+        assertTrue(bst.select(bst.size() - 1) < 1000);
+        assertTrue(upper.select(0) >= 1000);
+        checkCounts(bst.root);
+        checkCounts(upper.root);
+        assertEquals(checkHeights(bst.root), bst.depth());
+        assertEquals(checkHeights(upper.root), upper.depth());
+        assertSame(bst, BSTSimple.join(bst, upper));
+        assertEquals(size, bst.size());
+        assertEquals(0, upper.size());
+        checkCounts(bst.root);
+        assertEquals(checkHeights(bst.root), bst.depth());
+    }
+
+    @Test
+    public void testSplitAndJoinEmpty() {
+        BSTSimple<String, Integer> bst = new BSTSimple<>();
+        bst.put("X", 42);
+        BSTSimple<String, Integer> upper = bst.split("A");
+        assertEquals(0, bst.size());
+        assertEquals(1, upper.size());
+        BSTSimple.join(bst, upper);
+        assertEquals(Integer.valueOf(42), bst.get("X"));
+        assertEquals(0, bst.split("Y").size());
+        assertEquals(1, bst.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testJoinOverlapping() {
+        BSTSimple<String, Integer> left = new BSTSimple<>();
+        left.put("X", 1);
+        BSTSimple<String, Integer> right = new BSTSimple<>();
+        right.put("X", 2);
+        BSTSimple.join(left, right);
+    }
+
+    @Test
+    public void testParallelPutAllAndDeleteAll() {
+        Random random = new Random(0L);
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(1L));
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(100000);
+            bst.put(key, i);
+            expected.put(key, i);
+        }
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < 20000; i++) map.put(random.nextInt(100000), -i);
+        List<Integer> doomed = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) doomed.add(random.nextInt(100000));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        bst.putAll(map, pool);
+        expected.putAll(map);
+        assertEquals(expected.size(), bst.size());
+        bst.deleteAll(doomed, pool);
+        expected.keySet().removeAll(doomed);
+        assertEquals(expected.size(), bst.size());
+        assertEquals(expected.keySet(), bst.keySet());
+        for (Integer key : expected.keySet()) assertEquals(expected.get(key), bst.get(key));
+        checkCounts(bst.root);
+        assertEquals(checkHeights(bst.root), bst.depth());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testPoolReusesNodes() {
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L), 1.0, 10);
+        for (int i = 0; i < 100; i++) bst.put(i * 37 % 100, i);
+        assertEquals(0, bst.getPoolSize());
+        for (int i = 0; i < 50; i++) bst.deleteRandom(i);
+        bst.deleteMin();
+        bst.deleteMax();
+        assertEquals(10, bst.getPoolSize());
+        assertEquals(48, bst.size());
+        for (int i = 0; i < 5; i++) bst.put(i, -i);
+        assertEquals(5, bst.getPoolSize());
+        assertEquals(Integer.valueOf(-4), bst.get(4));
+        assertNull(bst.get(5));
+        checkCounts(bst.root);
+        assertEquals(checkHeights(bst.root), bst.depth());
+    }
+
+    @Test
+    public void testPoolMixedOperations() {
+        Random random = new Random(0L);
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(1L), 1.0, 64);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(1000);
+            switch (random.nextInt(5)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertTrue(bst.getPoolSize() <= 64);
+        }
+        assertEquals(expected.keySet(), bst.keySet());
+        for (Integer key : expected.keySet()) assertEquals(expected.get(key), bst.get(key));
+        checkCounts(bst.root);
+        assertEquals(checkHeights(bst.root), bst.depth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPoolInvalidCapacity() {
+        new BSTSimple<String, Integer>(new Random(), 1.0, -1);
+    }
+
+    @Test
+    public void testFreeze() {
+        for (int n = 0; n < 70; n++) {
+            BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(n));
+            Map<Integer, Integer> map = new HashMap<>();
+            for (int i = 0; i < n; i++) map.put(2 * i, i);
+            bst.putAll(map);
+            FrozenBST<Integer, Integer> frozen = bst.freeze();
+            assertEquals(n, frozen.size());
+            assertEquals(32 - Integer.numberOfLeadingZeros(n), frozen.depth());
+            for (int k = -1; k <= 2 * n; k++) {
+                assertEquals(bst.get(k), frozen.get(k));
+                assertEquals(k < 2 * n - 1 ? Integer.valueOf(Math.max(k + 1, 0) / 2 * 2) : null, frozen.ceiling(k));
+            }
+            List<Integer> keys = new ArrayList<>();
+            frozen.inOrderTraverse((k, v) -> {
+                keys.add(k);
+                return null;
+            });
+            assertEquals(new ArrayList<>(bst.keySet()), keys);
+        }
+        BSTSimple<String, Integer> bst = new BSTSimple<>();
+        bst.put("Y", 42);
+        bst.put("X", 99);
+        FrozenBST<String, Integer> frozen = bst.freeze();
+        bst.put("Z", 37);
+        assertEquals("FrozenBST{X: 99, Y: 42}", frozen.toString());
+        assertFalse(frozen.contains("Z"));
+    }
+
+    @Test
+    public void testDepthProfile() {
+        for (double alpha : new double[]{1.0, 0.7}) {
+            Random random = new Random(0L);
+            BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(1L), alpha, 16);
+            assertEquals(0, bst.depthHistogram().length);
+            assertEquals(0, bst.averageDepth(), 0);
+            for (int i = 0; i < 5000; i++) {
+                int key = random.nextInt(500);
+                switch (random.nextInt(6)) {
+                    case 0:
+                        bst.delete(key);
+                        break;
+                    case 1:
+                        bst.deleteRandom(key);
+                        break;
+                    case 2:
+                        bst.deleteMin();
+                        break;
+                    case 3:
+                        bst.deleteMax();
+                        break;
+                    default:
+                        bst.put(key, i);
+                }
+                checkDepthProfile(bst);
+            }
+        }
+    }
+
+    @Test
+    public void testDepthProfileAfterReshaping() {
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L));
+        for (int i = 0; i < 100; i++) bst.put(i, i);
+        assertEquals(99 * 100 / 2, bst.pathLength());
+        assertEquals(49.5, bst.averageDepth(), 1E-9);
+        SortedMap<Integer, Integer> map = new TreeMap<>();
+        for (int i = 100; i < 127; i++) map.put(i, i);
+        bst.putAll(map);
+        checkDepthProfile(bst);
+        assertArrayEquals(new int[]{1, 2, 4, 8, 16, 32, 64}, bst.depthHistogram());
+        BSTSimple<Integer, Integer> upper = bst.split(50);
+        checkDepthProfile(bst);
+        checkDepthProfile(upper);
+        upper.delete(60);
+        bst.put(-1, -1);
+        checkDepthProfile(upper);
+        BSTSimple.join(bst, upper);
+        checkDepthProfile(bst);
+        checkDepthProfile(upper);
+    }
+
+    /**
+     * Method to check the depth histogram and the (incrementally maintained) path length of bst against the depths of its keys.
+     */
+    private static void checkDepthProfile(BSTSimple<Integer, Integer> bst) {
+        int[] expected = new int[bst.depth()];
+        long pathLength = 0;
+        for (Integer key : bst.keySet()) {
+            int depth = bst.depth(key);
+            expected[depth]++;
+            pathLength += depth;
+        }
+        assertArrayEquals(expected, bst.depthHistogram());
+        assertEquals(pathLength, bst.pathLength());
+        assertEquals(bst.size() > 0 ? (double) pathLength / bst.size() : 0, bst.averageDepth(), 1E-9);
+    }
+
+    @Test
+    public void testBloomFilter() {
+        Random random = new Random(0L);
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(1L));
+        for (int i = 0; i < 1000; i++) bst.put(random.nextInt(4000), i);
+        bst.setBloomFilter(10);
+        TreeSet<Integer> expected = new TreeSet<>(bst.keySet());
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(4000);
+            switch (random.nextInt(5)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirst();
+                    break;
+                case 2:
+                    bst.put(key, i);
+                    expected.add(key);
+                    break;
+                default:
+                    assertEquals(expected.contains(key), bst.contains(key));
+            }
+        }
+        BSTSimple<Integer, Integer> upper = bst.split(2000);
+        for (int key = 0; key < 4000; key++) {
+            assertEquals(expected.contains(key) && key < 2000, bst.contains(key));
+            assertEquals(expected.contains(key) && key >= 2000, upper.contains(key));
+        }
+        upper.put(3999, 0);
+        expected.add(3999);
+        BSTSimple.join(bst, upper);
+        SortedMap<Integer, Integer> more = new TreeMap<>();
+        for (int key = 4000; key < 4100; key++) more.put(key, key);
+        bst.putAll(more);
+        expected.addAll(more.keySet());
+        for (int key = 0; key < 4200; key++) assertEquals(expected.contains(key), bst.contains(key));
+        Map<Integer, Integer> batch = new HashMap<>();
+        for (int key = 4100; key < 8100; key++) batch.put(key, key);
+        bst.putAll(batch, ForkJoinPool.commonPool());
+        expected.addAll(batch.keySet());
+        for (int key = 0; key < 8200; key++) assertEquals(expected.contains(key), bst.contains(key));
+        bst.setBloomFilter(0);
+        for (int key = 0; key < 8200; key++) assertEquals(expected.contains(key), bst.contains(key));
+    }
+
+    @Test
+    public void testBloomFilterRequiresConsistentHashCode() {
+        BSTSimple<CaselessKey, Integer> inconsistent = new BSTSimple<>(new Random(0L));
+        BSTSimple<CaselessKey, Integer> consistent = new BSTSimple<>(new Random(0L));
+        for (int i = 0; i < 100; i++) {
+            inconsistent.put(new CaselessKey("key" + i, false), i);
+            consistent.put(new CaselessKey("key" + i, true), i);
+        }
+        // Without a filter, hashCode is never used, so a key which is equal (by compareTo) to a present key is found.
+        for (int i = 0; i < 100; i++) assertTrue(inconsistent.contains(new CaselessKey("KEY" + i, false)));
+        inconsistent.setBloomFilter(10);
+        consistent.setBloomFilter(10);
+        int found = 0;
+        for (int i = 0; i < 100; i++) {
+            assertTrue(consistent.contains(new CaselessKey("KEY" + i, true)));
+            if (inconsistent.contains(new CaselessKey("KEY" + i, false))) found++;
+            // The node itself is still found by get, which does not consult the filter.
+            assertEquals(Integer.valueOf(i), inconsistent.get(new CaselessKey("KEY" + i, false)));
+        }
+        // With an identity hashCode, the filter rejects (almost) all of them: this is the documented false negative.
+        assertTrue(found < 10);
+    }
+
+    /**
+     * Key which compares case-insensitively, and whose hashCode is consistent with that only if consistent is true.
+     */
+    private static class CaselessKey implements Comparable<CaselessKey> {
+        CaselessKey(String name, boolean consistent) {
+            this.name = name;
+            this.consistent = consistent;
+        }
+
+        @Override
+        public int compareTo(CaselessKey o) {
+            return name.compareToIgnoreCase(o.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return consistent ? name.toLowerCase().hashCode() : System.identityHashCode(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CaselessKey && compareTo((CaselessKey) o) == 0;
+        }
+
+        private final String name;
+        private final boolean consistent;
+    }
 }
\ No newline at end of file
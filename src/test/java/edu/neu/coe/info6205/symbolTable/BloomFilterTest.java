@@ -0,0 +1,27 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10000, 10);
+        for (int i = 0; i < 10000; i++) filter.add(Integer.hashCode(i * 7));
+        assertEquals(10000, filter.getKeys());
+        for (int i = 0; i < 10000; i++) assertTrue(filter.mightContain(Integer.hashCode(i * 7)));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        final int n = 100000;
+        BloomFilter filter = new BloomFilter(n, 10);
+        for (int i = 0; i < n; i++) filter.add(("key" + i).hashCode());
+        int falsePositives = 0;
+        for (int i = n; i < 2 * n; i++) if (filter.mightContain(("key" + i).hashCode())) falsePositives++;
+        // An unblocked filter with 10 bits per key would give about 0.8%; blocking costs a little.
+        assertTrue("false positives: " + falsePositives, falsePositives < n * 0.02);
+    }
+}
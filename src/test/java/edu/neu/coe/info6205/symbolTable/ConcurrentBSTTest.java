@@ -0,0 +1,127 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentBSTTest {
+
+    @Test
+    public void testPut() {
+        BstDetail<String, Integer> bst = new ConcurrentBST<>(new Random(0L));
+        assertEquals(0, bst.size());
+        assertNull(bst.put("Y", 42));
+        assertNull(bst.put("X", 99));
+        assertNull(bst.put("Z", 37));
+        assertEquals(Integer.valueOf(42), bst.put("Y", 43));
+        assertEquals(3, bst.size());
+        assertEquals(Integer.valueOf(43), bst.get("Y"));
+        assertTrue(bst.contains("X"));
+        assertFalse(bst.contains("W"));
+        assertEquals(2, bst.depth());
+        assertEquals(Arrays.asList("X", "Y", "Z"), new ArrayList<>(bst.keySet()));
+    }
+
+    @Test
+    public void testMixedOperations() {
+        Random random = new Random(0L);
+        ConcurrentBST<Integer, Integer> bst = new ConcurrentBST<>(new Random(1L));
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(6)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                case 3:
+                    bst.deleteMax();
+                    if (!expected.isEmpty()) expected.pollLastEntry();
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        assertEquals(expected.keySet(), bst.keySet());
+        checkOrder(bst.head.larger, null, null);
+    }
+
+    /**
+     * Each thread owns the keys which are congruent to its index (modulo the number of threads), and so can keep its
+     * own record of what those keys should map to, even though the other threads are busy changing the shape of the
+     * tree around them (in particular, by deleting nodes with two children, which relocates their successors).
+     * Every get must therefore agree exactly with the thread's own record.
+     */
+    @Test
+    public void testStress() throws Exception {
+        final int threads = 8;
+        final int keys = 4000;
+        final int operations = 100000;
+        ConcurrentBST<Integer, Integer> bst = new ConcurrentBST<>(new Random(0L));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Future<Map<Integer, Integer>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(index);
+                Map<Integer, Integer> expected = new HashMap<>();
+                barrier.await();
+                for (int i = 0; i < operations; i++) {
+                    int key = random.nextInt(keys / threads) * threads + index;
+                    switch (random.nextInt(5)) {
+                        case 0:
+                            bst.delete(key);
+                            expected.remove(key);
+                            break;
+                        case 1:
+                            bst.deleteRandom(key);
+                            expected.remove(key);
+                            break;
+                        case 2:
+                            assertEquals(expected.put(key, i), bst.put(key, i));
+                            break;
+                        default:
+                            assertEquals(expected.get(key), bst.get(key));
+                    }
+                }
+                return expected;
+            }));
+        }
+        Set<Integer> expected = new TreeSet<>();
+        for (Future<Map<Integer, Integer>> future : futures) {
+            Map<Integer, Integer> map = future.get(60, TimeUnit.SECONDS);
+            for (Map.Entry<Integer, Integer> entry : map.entrySet())
+                assertEquals(entry.getValue(), bst.get(entry.getKey()));
+            expected.addAll(map.keySet());
+        }
+        executor.shutdown();
+        assertEquals(expected.size(), bst.size());
+        assertEquals(expected, bst.keySet());
+        checkOrder(bst.head.larger, null, null);
+    }
+
+    /**
+     * Check that there are no removed nodes in the subtree rooted at node and that its keys are between lo and hi.
+     */
+    private void checkOrder(ConcurrentBST<Integer, Integer>.Node node, Integer lo, Integer hi) {
+        if (node == null) return;
+        assertFalse(node.removed);
+        if (lo != null) assertTrue(node.key > lo);
+        if (hi != null) assertTrue(node.key < hi);
+        checkOrder(node.smaller, lo, node.key);
+        checkOrder(node.larger, node.key, hi);
+    }
+}
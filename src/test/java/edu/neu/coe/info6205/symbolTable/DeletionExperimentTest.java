@@ -0,0 +1,51 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class DeletionExperimentTest {
+
+    @Test
+    public void testRun() {
+        DeletionExperiment experiment = new DeletionExperiment(DeletionExperiment.of(BSTSimple::new, BstDetail::delete), 10, 0L);
+        DeletionExperiment.Result result = experiment.run(512);
+        assertEquals(10, result.trials);
+        assertTrue(result.meanN() > 0 && result.meanN() <= 513);
+        assertTrue(result.meanDepth() >= result.lgN());
+    }
+
+    @Test
+    public void testDeterministicAcrossParallelism() {
+        ForkJoinPool serial = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            DeletionExperiment.Result r1 = new DeletionExperiment(DeletionExperiment.of(BSTSimple::new, BstDetail::deleteRandom), 20, 42L, serial).run(1024);
+            DeletionExperiment.Result r2 = new DeletionExperiment(DeletionExperiment.of(BSTSimple::new, BstDetail::deleteRandom), 20, 42L, parallel).run(1024);
+            assertEquals(r1.sumDepth, r2.sumDepth);
+            assertEquals(r1.sumN, r2.sumN);
+        } finally {
+            serial.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void testIntIntMatchesBSTSimple() {
+        // Given the same seed, IntIntBST and BSTSimple should build exactly the same trees.
+        DeletionExperiment.Result r1 = new DeletionExperiment(DeletionExperiment.of(BSTSimple::new, BstDetail::deleteRandom), 8, 7L).run(2048);
+        DeletionExperiment.Result r2 = new DeletionExperiment(DeletionExperiment.ofIntInt(false), 8, 7L).run(2048);
+        assertEquals(r1.sumDepth, r2.sumDepth);
+        assertEquals(r1.sumN, r2.sumN);
+    }
+
+    @Test
+    public void testSweep() {
+        List<DeletionExperiment.Result> results = new DeletionExperiment(DeletionExperiment.of(Treap::new, BstDetail::delete), 4, 0L).sweep(512, 2048);
+        assertEquals(3, results.size());
+        assertEquals(2048, results.get(2).n);
+    }
+}
@@ -0,0 +1,95 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.StatPack;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static edu.neu.coe.info6205.symbolTable.InstrumentedBSTHelper.*;
+import static org.junit.Assert.*;
+
+public class InstrumentedBSTHelperTest {
+
+    @Test
+    public void testCreate() throws IOException {
+        final Config config = Config.load(getClass());
+        assertTrue(BSTHelper.create(10, config).instrumented());
+        assertSame(BSTHelper.NONE, BSTHelper.create(10, config.copy(BSTHelper.BST_HELPER, BSTHelper.INSTRUMENT, "false")));
+        assertNull(BSTHelper.NONE.getStatPack());
+        assertSame(BSTHelper.NONE, new BSTSimple<String, Integer>().getHelper());
+    }
+
+    @Test
+    public void testOperations() throws IOException {
+        final BSTHelper helper = BSTHelper.create(16, Config.load(getClass()));
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L), 1.0, 0, helper);
+        for (int k : new int[]{5, 3, 8, 1, 4, 7, 9}) bst.put(k, k);
+        final StatPack statPack = helper.getStatPack();
+        // The root costs nothing; then 1, 1, 2, 2, 2, 2 nodes are visited (and counts updated).
+        assertEquals(7, statPack.getCount(PUT_VISITS));
+        assertEquals(10, statPack.total(PUT_VISITS), 0);
+        assertEquals(10, statPack.total(COUNTS), 0);
+        bst.put(4, 40);
+        assertEquals(13, statPack.total(PUT_VISITS), 0);
+        assertEquals(10, statPack.total(COUNTS), 0);
+        assertEquals(Integer.valueOf(40), bst.get(4));
+        assertNull(bst.get(6));
+        assertEquals(2, statPack.getCount(GET_VISITS));
+        assertEquals(6, statPack.total(GET_VISITS), 0);
+        // Deleting the root visits it, then 8 and 7 in finding the successor, whose count is set, as is that of 8.
+        bst.delete(5);
+        assertEquals(1, statPack.total(DELETE_VISITS), 0);
+        assertEquals(1, statPack.getCount(SUCCESSORS));
+        assertEquals(2, statPack.total(SUCCESSORS), 0);
+        assertEquals(12, statPack.total(COUNTS), 0);
+        // A key which is absent: 7, 3, 4 are visited.
+        bst.delete(6);
+        assertEquals(4, statPack.total(DELETE_VISITS), 0);
+        assertEquals(1, statPack.getCount(SUCCESSORS));
+        assertEquals(12, statPack.getCount(COMPARES));
+        assertEquals(13 + 6 + 4, statPack.total(COMPARES), 0);
+        assertEquals(6, bst.size());
+    }
+
+    @Test
+    public void testSelectedStatistics() throws IOException {
+        final Config config = Config.load(getClass()).copy(BST_INSTRUMENTING, COMPARES, "false").copy(BST_INSTRUMENTING, COUNTS, "false");
+        final BSTHelper helper = BSTHelper.create(16, config);
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L), 1.0, 0, helper);
+        for (int k = 0; k < 10; k++) bst.put(k, k);
+        bst.delete(0);
+        final StatPack statPack = helper.getStatPack();
+        assertEquals(0, statPack.getCount(COMPARES));
+        assertEquals(0, statPack.getCount(COUNTS));
+        assertEquals(10, statPack.getCount(PUT_VISITS));
+        assertEquals(1, statPack.getCount(DELETE_VISITS));
+        assertEquals(0, statPack.getCount(SUCCESSORS));
+    }
+
+    @Test
+    public void testParallelBatch() throws IOException {
+        final BSTHelper helper = BSTHelper.create(16, Config.load(getClass()));
+        BSTSimple<Integer, Integer> bst = new BSTSimple<>(new Random(0L), 1.0, 0, helper);
+        Map<Integer, Integer> map = new HashMap<>();
+        Random random = new Random(0L);
+        while (map.size() < 50000) map.put(random.nextInt(), 0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            bst.putAll(map, pool);
+            List<Integer> keys = new ArrayList<>(map.keySet()).subList(0, 20000);
+            bst.deleteAll(keys, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(30000, bst.size());
+        final StatPack statPack = helper.getStatPack();
+        // No sample is lost, although the halves of the tree share the helper and are updated by different threads.
+        assertEquals(50000, statPack.getCount(PUT_VISITS));
+        assertEquals(20000, statPack.getCount(DELETE_VISITS));
+        assertEquals(70000, statPack.getCount(COMPARES));
+        assertEquals(70000, statPack.getCount(COUNTS));
+    }
+}
@@ -0,0 +1,107 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class IntIntBSTTest {
+
+    @Test
+    public void testPut() {
+        IntIntBST bst = new IntIntBST();
+        assertEquals(0, bst.size());
+        assertTrue(bst.put(2, 42));
+        assertTrue(bst.put(1, 99));
+        assertTrue(bst.put(3, 37));
+        assertFalse(bst.put(2, 43));
+        assertEquals(3, bst.size());
+        assertEquals(43, bst.get(2, -1));
+        assertEquals(-1, bst.get(4, -1));
+        assertTrue(bst.contains(1));
+        assertFalse(bst.contains(0));
+        assertEquals(2, bst.depth());
+        assertEquals(0, bst.depth(2));
+        assertEquals(1, bst.depth(3));
+        assertEquals(-1, bst.depth(4));
+    }
+
+    @Test
+    public void testDelete() {
+        IntIntBST bst = new IntIntBST(1);
+        bst.put(24, 42);
+        bst.put(23, 57);
+        bst.delete(1);
+        assertEquals(2, bst.size());
+        bst.deleteRandom(24);
+        assertEquals(1, bst.size());
+        assertFalse(bst.contains(24));
+        bst.delete(23);
+        assertEquals(0, bst.size());
+        assertEquals(0, bst.depth());
+        bst.deleteMin();
+        bst.deleteMax();
+        assertEquals(0, bst.size());
+    }
+
+    @Test
+    public void testFreeListReusesSlots() {
+        IntIntBST bst = new IntIntBST(64);
+        Random random = new Random(0L);
+        for (int i = 0; i < 64; i++) bst.put(i, i);
+        for (int i = 0; i < 10000; i++) {
+            int key = random.nextInt(64);
+            bst.deleteRandom(key);
+            bst.put(key, i);
+        }
+        assertEquals(64, bst.size());
+        assertEquals(64, bst.capacity());
+    }
+
+    @Test
+    public void testSortedInput() {
+        final int n = 1 << 15;
+        IntIntBST bst = new IntIntBST();
+        for (int i = 0; i < n; i++) bst.put(i, i);
+        assertEquals(n, bst.size());
+        assertEquals(n, bst.depth());
+        bst.deleteMax();
+        bst.deleteMin();
+        assertEquals(n - 2, bst.size());
+    }
+
+    @Test
+    public void testMixedOperations() {
+        Random random = new Random(0L);
+        IntIntBST bst = new IntIntBST();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(6)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                case 3:
+                    bst.deleteMax();
+                    if (!expected.isEmpty()) expected.pollLastEntry();
+                    break;
+                default:
+                    assertEquals(expected.put(key, i) == null, bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        for (int key = 0; key < 2000; key++)
+            assertEquals(expected.getOrDefault(key, -1).intValue(), bst.get(key, -1));
+    }
+}
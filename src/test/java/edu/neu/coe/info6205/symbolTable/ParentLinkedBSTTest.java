@@ -0,0 +1,107 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ParentLinkedBSTTest {
+
+    @Test
+    public void testPut() {
+        BstDetail<String, Integer> bst = new ParentLinkedBST<>(new Random(0L));
+        assertEquals(0, bst.size());
+        assertEquals(0, bst.depth());
+        assertNull(bst.put("Y", 42));
+        assertNull(bst.put("X", 99));
+        assertNull(bst.put("Z", 37));
+        assertEquals(Integer.valueOf(42), bst.put("Y", 43));
+        assertEquals(3, bst.size());
+        assertEquals(2, bst.depth());
+        assertEquals(Integer.valueOf(43), bst.get("Y"));
+        assertNull(bst.get("W"));
+        assertEquals(Arrays.asList("X", "Y", "Z"), new ArrayList<>(bst.keySet()));
+        assertEquals("ParentLinkedBST{X: 99, Y: 43, Z: 37}", bst.toString());
+    }
+
+    @Test
+    public void testRange() {
+        ParentLinkedBST<Integer, Integer> bst = new ParentLinkedBST<>(new Random(0L));
+        for (int i = 0; i < 100; i += 2) bst.put(i, i);
+        List<Integer> keys = new ArrayList<>();
+        bst.rangeIterator(11, 20).forEachRemaining(keys::add);
+        assertEquals(Arrays.asList(12, 14, 16, 18, 20), keys);
+        keys.clear();
+        bst.rangeTraverse(95, 200, (k, v) -> {
+            keys.add(k);
+            return null;
+        });
+        assertEquals(Arrays.asList(96, 98), keys);
+        assertFalse(bst.rangeIterator(21, 21).hasNext());
+        assertEquals(Integer.valueOf(22), bst.ceiling(21));
+        assertEquals(Integer.valueOf(20), bst.floor(21));
+        assertNull(bst.ceiling(99));
+        assertNull(bst.floor(-1));
+    }
+
+    /**
+     * A tree of sorted keys is a path: nothing may recurse (or use a stack) in proportion to its depth.
+     */
+    @Test
+    public void testDeepTree() {
+        final int n = 20000;
+        ParentLinkedBST<Integer, Integer> bst = new ParentLinkedBST<>(new Random(0L));
+        for (int i = 0; i < n; i++) bst.put(i, i);
+        assertEquals(n, bst.depth());
+        long[] sum = new long[1];
+        bst.inOrderTraverse((k, v) -> {
+            sum[0] += k;
+            return null;
+        });
+        assertEquals((long) n * (n - 1) / 2, sum[0]);
+        for (int i = 0; i < n; i += 2) bst.deleteRandom(i);
+        assertEquals(n / 2, bst.size());
+        Iterator<Integer> iterator = bst.rangeIterator(0, n);
+        for (int i = 1; i < n; i += 2) assertEquals(Integer.valueOf(i), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testMixedOperations() {
+        Random random = new Random(0L);
+        ParentLinkedBST<Integer, Integer> bst = new ParentLinkedBST<>(new Random(1L));
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(7)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                case 3:
+                    bst.deleteMax();
+                    if (!expected.isEmpty()) expected.pollLastEntry();
+                    break;
+                case 4:
+                    List<Integer> keys = new ArrayList<>();
+                    bst.rangeIterator(key, key + 50).forEachRemaining(keys::add);
+                    assertEquals(new ArrayList<>(expected.subMap(key, true, key + 50, true).keySet()), keys);
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        assertEquals(expected.keySet(), bst.keySet());
+        for (Integer key : expected.keySet()) assertEquals(expected.get(key), bst.get(key));
+    }
+}
@@ -0,0 +1,139 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class PersistentBSTTest {
+
+    @Test
+    public void testPut() {
+        BstDetail<String, Integer> bst = new PersistentBST<>(new Random(0L));
+        assertEquals(0, bst.size());
+        assertNull(bst.put("Y", 42));
+        assertNull(bst.put("X", 99));
+        assertNull(bst.put("Z", 37));
+        assertEquals(Integer.valueOf(42), bst.put("Y", 43));
+        assertEquals(3, bst.size());
+        assertEquals(2, bst.depth());
+        assertEquals(Integer.valueOf(43), bst.get("Y"));
+        assertTrue(bst.contains("X"));
+        assertFalse(bst.contains("W"));
+        assertEquals(Arrays.asList("X", "Y", "Z"), new ArrayList<>(bst.keySet()));
+    }
+
+    @Test
+    public void testSnapshot() {
+        PersistentBST<Integer, Integer> bst = new PersistentBST<>(new Random(0L));
+        for (int i = 0; i < 100; i++) bst.put(i * 7 % 100, i);
+        PersistentBST<Integer, Integer> snapshot = bst.snapshot();
+        Iterator<Map.Entry<Integer, Integer>> iterator = bst.iterator();
+        for (int i = 0; i < 100; i += 2) bst.deleteRandom(i);
+        bst.put(1000, 1000);
+        bst.deleteMin();
+        assertEquals(50, bst.size());
+        assertEquals(100, snapshot.size());
+        int expected = 0;
+        while (iterator.hasNext()) assertEquals(Integer.valueOf(expected++), iterator.next().getKey());
+        assertEquals(100, expected);
+        for (int i = 0; i < 100; i++) assertTrue(snapshot.contains(i));
+        snapshot.delete(50);
+        assertEquals(99, snapshot.size());
+        assertNull(bst.get(50));
+        assertEquals(Integer.valueOf(1000), bst.get(1000));
+        assertNull(snapshot.get(1000));
+    }
+
+    @Test
+    public void testMixedOperations() {
+        Random random = new Random(0L);
+        PersistentBST<Integer, Integer> bst = new PersistentBST<>(new Random(1L));
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(6)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                case 3:
+                    bst.deleteMax();
+                    if (!expected.isEmpty()) expected.pollLastEntry();
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        assertEquals(expected.keySet(), bst.keySet());
+        for (Integer key : expected.keySet()) assertEquals(expected.get(key), bst.get(key));
+        checkSize(bst);
+    }
+
+    /**
+     * Writers (with disjoint keys) and a reader of snapshots run concurrently. Each writer repeatedly moves its keys
+     * between the two slots (2i and 2i+1) of a pair, by putting the new slot before deleting the old one.
+     * Every version of the tree therefore contains at least one key of every pair, and so must every snapshot.
+     */
+    @Test
+    public void testConcurrentSnapshots() throws Exception {
+        final int writers = 4;
+        final int pairs = 200;
+        PersistentBST<Integer, Integer> bst = new PersistentBST<>(new Random(0L));
+        Map<Integer, Integer> initial = new HashMap<>();
+        for (int i = 0; i < pairs; i++) initial.put(2 * i, i);
+        bst.putAll(initial);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            final int index = w;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 2000; j++)
+                    for (int i = index; i < pairs; i += writers) {
+                        int from = 2 * i + (j & 1);
+                        int to = 2 * i + 1 - (j & 1);
+                        bst.put(to, i);
+                        bst.delete(from);
+                    }
+                return null;
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            for (int j = 0; j < 200; j++) {
+                PersistentBST<Integer, Integer> snapshot = bst.snapshot();
+                boolean[] seen = new boolean[pairs];
+                Integer previous = null;
+                for (Map.Entry<Integer, Integer> entry : snapshot) {
+                    if (previous != null) assertTrue(previous < entry.getKey());
+                    previous = entry.getKey();
+                    assertEquals(Integer.valueOf(entry.getKey() / 2), entry.getValue());
+                    seen[entry.getKey() / 2] = true;
+                }
+                for (boolean b : seen) assertTrue(b);
+                checkSize(snapshot);
+            }
+            return null;
+        }));
+        for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertEquals(pairs, bst.size());
+        for (int i = 0; i < pairs; i++) assertTrue(bst.contains(2 * i));
+    }
+
+    private void checkSize(PersistentBST<Integer, Integer> bst) {
+        int size = 0;
+        for (Map.Entry<Integer, Integer> ignored : bst) size++;
+        assertEquals(size, bst.size());
+    }
+}
@@ -0,0 +1,130 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class RedBlackBSTTest {
+
+    @Test
+    public void testPut() {
+        BstDetail<String, Integer> bst = new RedBlackBST<>();
+        assertEquals(0, bst.size());
+        assertNull(bst.put("Y", 42));
+        assertNull(bst.put("X", 99));
+        assertNull(bst.put("Z", 37));
+        assertEquals(Integer.valueOf(42), bst.put("Y", 43));
+        assertEquals(3, bst.size());
+        assertEquals(Integer.valueOf(43), bst.get("Y"));
+        assertEquals(2, bst.depth());
+        assertTrue(bst.contains("X"));
+        assertFalse(bst.contains("W"));
+    }
+
+    @Test
+    public void testKeySet() {
+        BstDetail<String, Integer> bst = new RedBlackBST<>();
+        final Map<String, Integer> map = new HashMap<>();
+        map.put("Hello", 3);
+        map.put("Goodbye", 5);
+        map.put("Ciao", 6);
+        bst.putAll(map);
+        assertEquals(Arrays.asList("Ciao", "Goodbye", "Hello"), new ArrayList<>(bst.keySet()));
+    }
+
+    @Test
+    public void testDelete() {
+        BstDetail<String, Integer> bst = new RedBlackBST<>();
+        bst.put("X", 42);
+        bst.delete("A");
+        assertEquals(1, bst.size());
+        bst.delete("X");
+        assertEquals(0, bst.size());
+        assertNull(bst.get("X"));
+        bst.deleteRandom("X");
+        bst.deleteMin();
+        bst.deleteMax();
+        assertEquals(0, bst.depth());
+    }
+
+    @Test
+    public void testDeleteNullValue() {
+        BstDetail<String, Integer> bst = new RedBlackBST<>();
+        bst.put("X", null);
+        bst.put("Y", 42);
+        assertEquals(2, bst.size());
+        bst.delete("X");
+        assertEquals(1, bst.size());
+        assertEquals(Collections.singleton("Y"), bst.keySet());
+    }
+
+    @Test
+    public void testDeleteMinMax() {
+        BstDetail<Integer, Integer> bst = new RedBlackBST<>();
+        for (int i = 0; i < 100; i++) bst.put(i, i);
+        bst.deleteMin();
+        bst.deleteMax();
+        assertEquals(98, bst.size());
+        assertNull(bst.get(0));
+        assertNull(bst.get(99));
+        assertEquals(Integer.valueOf(98), bst.get(98));
+    }
+
+    @Test
+    public void testSortedInputIsBalanced() {
+        final int n = 1 << 16;
+        BstDetail<Integer, Integer> bst = new RedBlackBST<>();
+        for (int i = 0; i < n; i++) bst.put(i, i);
+        assertEquals(n, bst.size());
+        assertTrue(bst.depth() <= 2 * 16);
+    }
+
+    @Test
+    public void testMixedOperations() {
+        Random random = new Random(0L);
+        RedBlackBST<Integer, Integer> bst = new RedBlackBST<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(5)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                case 2:
+                    bst.deleteMax();
+                    if (!expected.isEmpty()) expected.pollLastEntry();
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        checkInvariants(bst.root);
+        assertEquals(expected.keySet(), bst.keySet());
+        assertTrue(bst.depth() <= 2 * Math.log(bst.size() + 1) / Math.log(2));
+    }
+
+    /**
+     * Check the counts, the left-leaning property and the perfect black balance of the subtree rooted at node.
+     *
+     * @return the black height of node.
+     */
+    private int checkInvariants(RedBlackBST.Node node) {
+        if (node == null) return 0;
+        assertFalse(node.larger != null && node.larger.red);
+        assertFalse(node.red && node.smaller != null && node.smaller.red);
+        int smaller = checkInvariants(node.smaller);
+        int larger = checkInvariants(node.larger);
+        assertEquals(smaller, larger);
+        int count = 1 + (node.smaller == null ? 0 : node.smaller.count) + (node.larger == null ? 0 : node.larger.count);
+        assertEquals(count, node.count);
+        return smaller + (node.red ? 0 : 1);
+    }
+}
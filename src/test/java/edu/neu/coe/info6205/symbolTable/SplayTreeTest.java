@@ -0,0 +1,130 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class SplayTreeTest {
+
+    @Test
+    public void testPut() {
+        BstDetail<String, Integer> bst = new SplayTree<>(new Random(0L));
+        assertEquals(0, bst.size());
+        assertNull(bst.get("X"));
+        assertNull(bst.put("Y", 42));
+        assertNull(bst.put("X", 99));
+        assertNull(bst.put("Z", 37));
+        assertEquals(Integer.valueOf(42), bst.put("Y", 43));
+        assertEquals(3, bst.size());
+        assertEquals(Integer.valueOf(43), bst.get("Y"));
+        assertTrue(bst.contains("X"));
+        assertFalse(bst.contains("W"));
+        assertEquals(Arrays.asList("X", "Y", "Z"), new ArrayList<>(bst.keySet()));
+        assertEquals("SplayTree{X: 99, Y: 43, Z: 37}", bst.toString());
+    }
+
+    @Test
+    public void testAccessSplaysToRoot() {
+        SplayTree<Integer, Integer> bst = new SplayTree<>(new Random(0L));
+        // Inserting in order makes a path (each new key becomes the root, with the rest to its left).
+        for (int i = 0; i < 1000; i++) bst.put(i, i);
+        assertEquals(1000, bst.depth());
+        assertEquals(Integer.valueOf(0), bst.get(0));
+        assertEquals(Integer.valueOf(0), bst.root.key);
+        // Splaying the deepest node roughly halved the depth.
+        assertTrue(bst.depth() < 510);
+        bst.get(500);
+        assertEquals(Integer.valueOf(500), bst.root.key);
+        bst.delete(500);
+        assertEquals(Integer.valueOf(501), bst.root.key);
+        bst.deleteRandom(501);
+        assertTrue(bst.root.key == 499 || bst.root.key == 502);
+        bst.deleteMin();
+        bst.deleteMax();
+        assertEquals(996, bst.size());
+        assertNull(bst.get(0));
+        assertNull(bst.get(999));
+    }
+
+    /**
+     * Hot keys should be found in a handful of comparisons, even in a large tree.
+     */
+    @Test
+    public void testSkewedAccessIsCheap() {
+        final int n = 1 << 16;
+        SplayTree<Counted, Integer> bst = new SplayTree<>(new Random(0L));
+        Map<Counted, Integer> map = new HashMap<>();
+        for (int i = 0; i < n; i++) map.put(new Counted(i), i);
+        bst.putAll(map);
+        Random random = new Random(1L);
+        Counted[] hot = new Counted[4];
+        for (int i = 0; i < hot.length; i++) hot[i] = new Counted(random.nextInt(n));
+        for (int i = 0; i < 100; i++) bst.get(hot[random.nextInt(hot.length)]);
+        Counted.compares = 0;
+        final int lookups = 10000;
+        for (int i = 0; i < lookups; i++) assertNotNull(bst.get(hot[random.nextInt(hot.length)]));
+        assertTrue(Counted.compares < 6 * lookups);
+    }
+
+    @Test
+    public void testMixedOperations() {
+        Random random = new Random(0L);
+        SplayTree<Integer, Integer> bst = new SplayTree<>(new Random(1L));
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(7)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteRandom(key);
+                    expected.remove(key);
+                    break;
+                case 2:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                case 3:
+                    bst.deleteMax();
+                    if (!expected.isEmpty()) expected.pollLastEntry();
+                    break;
+                case 4:
+                    assertEquals(expected.get(key), bst.get(key));
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        assertEquals(expected.keySet(), bst.keySet());
+        for (Integer key : expected.keySet()) assertEquals(expected.get(key), bst.get(key));
+    }
+
+    private static class Counted implements Comparable<Counted> {
+        Counted(int x) {
+            this.x = x;
+        }
+
+        public int compareTo(Counted o) {
+            compares++;
+            return Integer.compare(x, o.x);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Counted && ((Counted) o).x == x;
+        }
+
+        @Override
+        public int hashCode() {
+            return x;
+        }
+
+        static long compares = 0;
+        private final int x;
+    }
+}
@@ -0,0 +1,163 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import edu.neu.coe.info6205.balsearchtree.FixedWidth;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TraceRecorderTest {
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("TraceRecorderTest", ".trace");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testRecord() throws IOException {
+        BSTSimple<String, Integer> bst = new BSTSimple<>();
+        try (TraceRecorder<String, Integer> recorder = new TraceRecorder<>(file, bst, FixedWidth.string(4), FixedWidth.INTEGER)) {
+            assertNull(recorder.put("Y", 42));
+            assertNull(recorder.put("X", 99));
+            assertEquals(Integer.valueOf(99), recorder.get("X"));
+            assertFalse(recorder.contains("Z"));
+            recorder.delete("X");
+            recorder.deleteMin();
+            assertEquals(6, recorder.getRecords());
+            assertEquals(0, bst.size());
+        }
+        assertEquals(TraceRecorder.HEADER_LENGTH + 6 * (1 + 4 + 4), Files.size(file));
+        try (TraceReplayer<String, Integer> replayer = new TraceReplayer<>(file, FixedWidth.string(4), FixedWidth.INTEGER)) {
+            assertEquals(6, replayer.getRecords());
+            TreeMapTable<String, Integer> target = new TreeMapTable<>();
+            assertEquals(1, replayer.replay(target));
+            assertEquals(Arrays.asList("put Y=42", "put X=99", "get X", "get Z", "delete X", "deleteMin"), target.log);
+        }
+    }
+
+    /**
+     * Replaying the trace (in several small windows) into a BST with the same random source must reproduce the tree exactly.
+     */
+    @Test
+    public void testReplayReproducesTree() throws IOException {
+        Random random = new Random(0L);
+        BSTSimple<Long, Integer> original = new BSTSimple<>(new Random(1L));
+        Map<Long, Integer> initial = new HashMap<>();
+        try (TraceRecorder<Long, Integer> recorder = new TraceRecorder<>(file, original, FixedWidth.LONG, FixedWidth.INTEGER, new Random(2L))) {
+            for (int i = 0; i < 1000; i++) initial.put((long) random.nextInt(5000), i);
+            recorder.putAll(initial);
+            for (int i = 0; i < 300000; i++) {
+                long key = random.nextInt(5000);
+                switch (random.nextInt(7)) {
+                    case 0:
+                        recorder.delete(key);
+                        break;
+                    case 1:
+                        recorder.deleteRandom(key);
+                        break;
+                    case 2:
+                        recorder.deleteMin();
+                        break;
+                    case 3:
+                        recorder.deleteMax();
+                        break;
+                    case 4:
+                        recorder.get(key);
+                        break;
+                    default:
+                        recorder.put(key, i);
+                }
+            }
+        }
+        try (TraceReplayer<Long, Integer> replayer = new TraceReplayer<>(file, FixedWidth.LONG, FixedWidth.INTEGER, 1000)) {
+            assertEquals(initial.size() + 300000, replayer.getRecords());
+            BSTSimple<Long, Integer> copy = new BSTSimple<>(new Random(1L));
+            replayer.replay(copy);
+            assertEquals(original.toString(), copy.toString());
+            BSTSimple<Long, Integer> hibbard = new BSTSimple<>(new Random(1L));
+            replayer.replay(hibbard, BstDetail::delete);
+            assertEquals(original.keySet(), hibbard.keySet());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testWidthMismatch() throws IOException {
+        new TraceRecorder<>(file, new BSTSimple<Long, Integer>(), FixedWidth.LONG, FixedWidth.INTEGER).close();
+        new TraceReplayer<>(file, FixedWidth.INTEGER, FixedWidth.INTEGER).close();
+    }
+
+    /**
+     * A target which logs the operations applied to it (and otherwise behaves as a TreeMap).
+     */
+    private static class TreeMapTable<K extends Comparable<K>, V> implements BstDetail<K, V> {
+        public V get(K key) {
+            log.add("get " + key);
+            return map.get(key);
+        }
+
+        public V put(K key, V value) {
+            log.add("put " + key + "=" + value);
+            return map.put(key, value);
+        }
+
+        public Boolean contains(K key) {
+            return map.containsKey(key);
+        }
+
+        public void putAll(Map<K, V> m) {
+            map.putAll(m);
+        }
+
+        public void delete(K key) {
+            log.add("delete " + key);
+            map.remove(key);
+        }
+
+        public void deleteRandom(K key) {
+            log.add("deleteRandom " + key);
+            map.remove(key);
+        }
+
+        public int size() {
+            return map.size();
+        }
+
+        public void inOrderTraverse(java.util.function.BiFunction<K, V, Void> f) {
+            map.forEach(f::apply);
+        }
+
+        public void deleteMin() {
+            log.add("deleteMin");
+            if (!map.isEmpty()) map.pollFirstEntry();
+        }
+
+        public void deleteMax() {
+            log.add("deleteMax");
+            if (!map.isEmpty()) map.pollLastEntry();
+        }
+
+        public int depth() {
+            return 0;
+        }
+
+        public Set<K> keySet() {
+            return map.keySet();
+        }
+
+        final List<String> log = new ArrayList<>();
+        private final TreeMap<K, V> map = new TreeMap<>();
+    }
+
+    private Path file;
+}
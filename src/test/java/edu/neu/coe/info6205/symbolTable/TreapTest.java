@@ -0,0 +1,92 @@
+package edu.neu.coe.info6205.symbolTable;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TreapTest {
+
+    @Test
+    public void testPut() {
+        BstDetail<String, Integer> bst = new Treap<>(new Random(0L));
+        assertEquals(0, bst.size());
+        assertNull(bst.put("Y", 42));
+        assertNull(bst.put("X", 99));
+        assertNull(bst.put("Z", 37));
+        assertEquals(Integer.valueOf(42), bst.put("Y", 43));
+        assertEquals(3, bst.size());
+        assertEquals(Integer.valueOf(43), bst.get("Y"));
+        assertTrue(bst.contains("X"));
+        assertFalse(bst.contains("W"));
+        assertEquals(Arrays.asList("X", "Y", "Z"), new ArrayList<>(bst.keySet()));
+    }
+
+    @Test
+    public void testDelete() {
+        BstDetail<String, Integer> bst = new Treap<>(new Random(0L));
+        bst.put("X", 42);
+        bst.put("W", 57);
+        bst.delete("A");
+        assertEquals(2, bst.size());
+        bst.deleteRandom("X");
+        assertEquals(1, bst.size());
+        assertNull(bst.get("X"));
+        assertEquals(Integer.valueOf(57), bst.get("W"));
+        bst.delete("W");
+        assertEquals(0, bst.size());
+        assertEquals(0, bst.depth());
+    }
+
+    @Test
+    public void testSortedInputIsBalanced() {
+        final int n = 1 << 16;
+        BstDetail<Integer, Integer> bst = new Treap<>(new Random(0L));
+        for (int i = 0; i < n; i++) bst.put(i, i);
+        assertEquals(n, bst.size());
+        // The expected depth is about 3 lg N; this bound is very generous.
+        assertTrue(bst.depth() <= 4 * 16);
+    }
+
+    @Test
+    public void testMixedOperations() {
+        Random random = new Random(0L);
+        Treap<Integer, Integer> bst = new Treap<>(new Random(1L));
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            switch (random.nextInt(5)) {
+                case 0:
+                    bst.delete(key);
+                    expected.remove(key);
+                    break;
+                case 1:
+                    bst.deleteMin();
+                    if (!expected.isEmpty()) expected.pollFirstEntry();
+                    break;
+                case 2:
+                    bst.deleteMax();
+                    if (!expected.isEmpty()) expected.pollLastEntry();
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), bst.put(key, i));
+            }
+            assertEquals(expected.size(), bst.size());
+        }
+        checkInvariants(bst.root);
+        assertEquals(expected.keySet(), bst.keySet());
+    }
+
+    /**
+     * Check the counts and the heap order of the priorities in the subtree rooted at node.
+     */
+    private int checkInvariants(Treap.Node node) {
+        if (node == null) return 0;
+        if (node.smaller != null) assertTrue(node.smaller.priority <= node.priority);
+        if (node.larger != null) assertTrue(node.larger.priority <= node.priority);
+        int count = 1 + checkInvariants(node.smaller) + checkInvariants(node.larger);
+        assertEquals(count, node.count);
+        return count;
+    }
+}
@@ -34,4 +34,22 @@ public class StatisticsTest {
         statistics.add(4);
         assertEquals(Math.sqrt(3.5), statistics.stdDev(), 1E-7);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testManySamples() {
+        // The initial capacity is no longer a limit (or a cost): only running totals are kept.
+        final Statistics statistics = new Statistics("test", 1);
+        for (int i = 0; i < 1000000; i++) statistics.add(i % 2 == 0 ? 3 : 5);
+        assertEquals(1000000, statistics.getCount());
+        assertEquals(4000000, statistics.total(), 0);
+        assertEquals(4, statistics.mean(), 0);
+        assertEquals(1, statistics.stdDev(), 1E-7);
+    }
+
+    @Test
+    public void testStdDevConstant() {
+        final Statistics statistics = new Statistics("test", 10);
+        for (int i = 0; i < 10; i++) statistics.add(0.1);
+        assertEquals(0, statistics.stdDev(), 1E-9);
+    }
+}